@@ -0,0 +1,88 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package guru.qas.martini.standalone.harness;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import guru.qas.martini.Martini;
+
+@SuppressWarnings("WeakerAccess")
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DefaultMartiniComparatorBenchmark {
+
+	@Param({"1000", "10000", "100000"})
+	public int size;
+
+	@Param({"NONE", "LOW", "HIGH"})
+	public SyntheticPopulation.Contention contention;
+
+	protected List<Martini> martinis;
+	protected Random random;
+	protected DefaultMartiniComparator warmComparator;
+
+	protected List<Martini> shuffled;
+	protected DefaultMartiniComparator coldComparator;
+
+	@Setup(Level.Trial)
+	public void setUpPopulation() {
+		martinis = SyntheticPopulation.create(size, contention, size);
+		random = new Random(size);
+		warmComparator = new DefaultMartiniComparator();
+		martinis.sort(warmComparator);
+	}
+
+	@Setup(Level.Invocation)
+	public void setUpInvocation() {
+		shuffled = new ArrayList<>(martinis);
+		Collections.shuffle(shuffled, random);
+		coldComparator = new DefaultMartiniComparator();
+	}
+
+	@Benchmark
+	public List<Martini> sortCold() {
+		shuffled.sort(coldComparator);
+		return shuffled;
+	}
+
+	@Benchmark
+	public List<Martini> sortWarm() {
+		shuffled.sort(warmComparator);
+		return shuffled;
+	}
+}
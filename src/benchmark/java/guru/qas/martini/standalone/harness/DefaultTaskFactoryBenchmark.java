@@ -0,0 +1,78 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package guru.qas.martini.standalone.harness;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import guru.qas.martini.Martini;
+
+import static guru.qas.martini.standalone.harness.SyntheticPopulation.Contention.NONE;
+
+@SuppressWarnings("WeakerAccess")
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Thread)
+public class DefaultTaskFactoryBenchmark {
+
+	protected static final int SIZE = 1024;
+
+	protected DefaultTaskFactory taskFactory;
+	protected List<Martini> martinis;
+	protected MartiniIterator iterator;
+	protected int index;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		taskFactory = new BenchmarkTaskFactory(0);
+		martinis = SyntheticPopulation.create(SIZE, NONE, SIZE);
+		iterator = MartiniIterator.builder()
+			.setComparator(new DefaultMartiniComparator())
+			.setMartinis(martinis)
+			.build();
+	}
+
+	protected Martini nextMartini() {
+		index = (index + 1) % SIZE;
+		return martinis.get(index);
+	}
+
+	@Benchmark
+	public Runnable getTask() {
+		return taskFactory.getTask(iterator.claimed(nextMartini()));
+	}
+
+	@Benchmark
+	public void getAndRunTask() {
+		taskFactory.getTask(iterator.claimed(nextMartini())).run();
+	}
+}
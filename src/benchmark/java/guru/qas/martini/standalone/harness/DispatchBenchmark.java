@@ -0,0 +1,114 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package guru.qas.martini.standalone.harness;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.support.GenericApplicationContext;
+
+import com.beust.jcommander.JCommander;
+
+import guru.qas.martini.Martini;
+import guru.qas.martini.standalone.jcommander.CommandLineOptions;
+
+import static guru.qas.martini.standalone.jcommander.CommandLineOptions.*;
+
+@SuppressWarnings("WeakerAccess")
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 20)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+@State(Scope.Benchmark)
+public class DispatchBenchmark {
+
+	@Param({"1000", "10000", "100000"})
+	public int size;
+
+	@Param({"NONE", "LOW", "HIGH"})
+	public SyntheticPopulation.Contention contention;
+
+	@Param({"POLL", "EVENT"})
+	public DispatchMode dispatchMode;
+
+	@Param({"4"})
+	public int parallelism;
+
+	@Param({"0", "1000"})
+	public long tokens;
+
+	protected List<Martini> martinis;
+	protected GenericApplicationContext context;
+	protected ForkJoinPool forkJoinPool;
+	protected DefaultMartiniStandaloneEngine engine;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		martinis = SyntheticPopulation.create(size, contention, size);
+		context = new GenericApplicationContext();
+		context.refresh();
+		forkJoinPool = new ForkJoinPool(parallelism);
+
+		Options options = getOptions();
+		engine = new DefaultMartiniStandaloneEngine(
+			options,
+			null,
+			null,
+			new DefaultMartiniComparator(),
+			new BenchmarkTaskFactory(tokens),
+			null,
+			forkJoinPool,
+			forkJoinPool);
+		engine.setApplicationContext(context);
+		engine.afterPropertiesSet();
+	}
+
+	protected Options getOptions() {
+		CommandLineOptions options = new CommandLineOptions();
+		JCommander.newBuilder().addObject(options).build().parse(
+			PARAMETER_DISPATCH_MODE, dispatchMode.name(),
+			PARAMETER_PARALLELISM, String.valueOf(parallelism),
+			PARAMETER_JOB_POOL_POLL_INTERVAL_MS, "1");
+		return options;
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		forkJoinPool.shutdownNow();
+		context.close();
+	}
+
+	@Benchmark
+	public void dispatch() {
+		engine.getRunnable(martinis).run();
+	}
+}
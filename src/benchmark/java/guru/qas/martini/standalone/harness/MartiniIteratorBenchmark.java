@@ -0,0 +1,93 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package guru.qas.martini.standalone.harness;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import guru.qas.martini.Martini;
+
+import static com.google.common.base.Preconditions.checkState;
+
+@SuppressWarnings("WeakerAccess")
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MartiniIteratorBenchmark {
+
+	@Param({"1000", "10000", "100000"})
+	public int size;
+
+	@Param({"NONE", "LOW", "HIGH"})
+	public SyntheticPopulation.Contention contention;
+
+	@Param({"1", "8", "64"})
+	public int slots;
+
+	protected List<Martini> martinis;
+	protected MartiniIterator iterator;
+
+	@Setup(Level.Trial)
+	public void setUpPopulation() {
+		martinis = SyntheticPopulation.create(size, contention, size);
+	}
+
+	@Setup(Level.Invocation)
+	public void setUpIterator() {
+		iterator = MartiniIterator.builder()
+			.setComparator(new DefaultMartiniComparator())
+			.setMartinis(martinis)
+			.build();
+	}
+
+	@Benchmark
+	public long drain() {
+		ArrayDeque<Martini> claimed = new ArrayDeque<>(slots);
+		while (iterator.hasNext()) {
+			Martini next = claimed.size() < slots ? iterator.next().orElse(null) : null;
+			if (null != next) {
+				claimed.add(next);
+			}
+			else {
+				checkState(!claimed.isEmpty(), "dispatch stalled with no Martinis in flight");
+				iterator.release(claimed.poll());
+			}
+		}
+
+		while (!claimed.isEmpty()) {
+			iterator.release(claimed.poll());
+		}
+		return iterator.getDispatchedCount();
+	}
+}
@@ -0,0 +1,145 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package guru.qas.martini.standalone.harness;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Semaphore;
+
+import com.google.common.collect.ImmutableList;
+
+import guru.qas.martini.Martini;
+import guru.qas.martini.gate.MartiniGate;
+import guru.qas.martini.standalone.TestMartini;
+import guru.qas.martini.standalone.TestMartiniGate;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+@SuppressWarnings("WeakerAccess")
+public final class SyntheticPopulation {
+
+	public enum Contention {
+		NONE(0, 0, 1),
+		LOW(64, 0.1, 4),
+		HIGH(4, 0.9, 1);
+
+		protected final int gateCount;
+		protected final double gatedFraction;
+		protected final int permits;
+
+		Contention(int gateCount, double gatedFraction, int permits) {
+			this.gateCount = gateCount;
+			this.gatedFraction = gatedFraction;
+			this.permits = permits;
+		}
+	}
+
+	private SyntheticPopulation() {
+	}
+
+	public static List<Martini> create(int size, Contention contention, long seed) {
+		checkArgument(size > 0, "illegal size %s; must be greater than zero", size);
+		Random random = new Random(seed);
+
+		List<MartiniGate> gates = new ArrayList<>(contention.gateCount);
+		for (int i = 0; i < contention.gateCount; i++) {
+			gates.add(new SyntheticGate("gate-" + i, contention.permits));
+		}
+
+		List<Martini> martinis = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			Collection<MartiniGate> martiniGates = random.nextDouble() < contention.gatedFraction ?
+				getGates(gates, random) : Collections.emptyList();
+			martinis.add(new SyntheticMartini("martini-" + i, martiniGates));
+		}
+		return martinis;
+	}
+
+	protected static Collection<MartiniGate> getGates(List<MartiniGate> gates, Random random) {
+		MartiniGate first = gates.get(random.nextInt(gates.size()));
+		MartiniGate second = gates.get(random.nextInt(gates.size()));
+		return first == second || random.nextBoolean() ?
+			Collections.singletonList(first) : ImmutableList.of(first, second);
+	}
+
+	protected static class SyntheticGate implements TestMartiniGate {
+
+		protected final String name;
+		protected final int permits;
+		protected final Semaphore semaphore;
+
+		protected SyntheticGate(String name, int permits) {
+			this.name = name;
+			this.permits = permits;
+			this.semaphore = new Semaphore(permits);
+		}
+
+		@Override
+		public String getName() {
+			return name;
+		}
+
+		@Override
+		public int getPermits() {
+			return permits;
+		}
+
+		@Override
+		public boolean enter() {
+			return semaphore.tryAcquire();
+		}
+
+		@Override
+		public void leave() {
+			semaphore.release();
+		}
+
+		@Override
+		public String toString() {
+			return name;
+		}
+	}
+
+	protected static class SyntheticMartini implements TestMartini {
+
+		protected final String id;
+		protected final Collection<MartiniGate> gates;
+
+		protected SyntheticMartini(String id, Collection<MartiniGate> gates) {
+			this.id = id;
+			this.gates = gates;
+		}
+
+		@Override
+		public String getId() {
+			return id;
+		}
+
+		@Override
+		public Collection<MartiniGate> getGates() {
+			return gates;
+		}
+
+		@Override
+		public String toString() {
+			return id;
+		}
+	}
+}
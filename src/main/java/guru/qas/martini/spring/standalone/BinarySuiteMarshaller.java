@@ -0,0 +1,186 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package guru.qas.martini.spring.standalone;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.WritableResource;
+import org.springframework.stereotype.Component;
+
+import com.google.common.util.concurrent.Monitor;
+
+import guru.qas.martini.Martini;
+import guru.qas.martini.event.AfterScenarioEvent;
+import guru.qas.martini.event.AfterSuiteEvent;
+import guru.qas.martini.result.MartiniResult;
+import guru.qas.martini.spring.standalone.configuration.BinaryOutputResourceConfiguration;
+import guru.qas.martini.standalone.harness.BinarySuiteMarshallerRequestedCondition;
+import guru.qas.martini.standalone.harness.RemoteResultEvent;
+import guru.qas.martini.standalone.harness.ScenarioSkippedEvent;
+import guru.qas.martini.standalone.io.BinaryResultWriter;
+import guru.qas.martini.standalone.io.JsonResultReader;
+import guru.qas.martini.standalone.io.ResultRecord;
+
+@SuppressWarnings("WeakerAccess")
+@Component
+@Lazy
+@Conditional(value = BinarySuiteMarshallerRequestedCondition.class)
+public class BinarySuiteMarshaller implements InitializingBean, DisposableBean {
+
+	protected static final Logger LOGGER = LoggerFactory.getLogger(BinarySuiteMarshaller.class);
+
+	protected final WritableResource outputResource;
+	protected final Monitor monitor;
+
+	protected BinaryResultWriter writer;
+	protected String host;
+
+	@Autowired
+	public BinarySuiteMarshaller(
+		@Qualifier(BinaryOutputResourceConfiguration.BEAN_NAME) WritableResource outputResource
+	) {
+		this.outputResource = outputResource;
+		this.monitor = new Monitor();
+	}
+
+	@Override
+	public void afterPropertiesSet() throws Exception {
+		host = getHost();
+		writer = new BinaryResultWriter(outputResource.getOutputStream());
+		LOGGER.info("writing binary results to {}", outputResource);
+	}
+
+	protected String getHost() {
+		try {
+			return InetAddress.getLocalHost().getHostName();
+		}
+		catch (UnknownHostException e) {
+			LOGGER.warn("unable to determine host name", e);
+			return null;
+		}
+	}
+
+	@EventListener
+	@Conditional(value = BinarySuiteMarshallerRequestedCondition.class)
+	public void handleAfterScenarioEvent(AfterScenarioEvent event) {
+		MartiniResult result = event.getPayload();
+		try {
+			ResultRecord record = getRecord(result);
+			write(record);
+		}
+		catch (Exception e) {
+			LOGGER.warn("unable to serialize MartiniResult {}", result, e);
+		}
+	}
+
+	protected ResultRecord getRecord(MartiniResult result) {
+		Martini martini = result.getMartini();
+		Object status = result.getStatus();
+		Long startTimestamp = result.getStartTimestamp();
+		Long executionTimeMs = result.getExecutionTimeMs();
+		return new ResultRecord(
+			martini.getId(),
+			null == status ? null : status.toString(),
+			null == startTimestamp ? ResultRecord.UNKNOWN : startTimestamp,
+			null == executionTimeMs ? ResultRecord.UNKNOWN : executionTimeMs,
+			result.getThreadName(),
+			host);
+	}
+
+	@EventListener
+	@Conditional(value = BinarySuiteMarshallerRequestedCondition.class)
+	public void handleRemoteResultEvent(RemoteResultEvent event) {
+		try {
+			ResultRecord forwarded = JsonResultReader.getRecord(event.getResult());
+			if (null != forwarded) {
+				write(new ResultRecord(
+					forwarded.getId(),
+					forwarded.getStatus().orElse(null),
+					forwarded.getStartTimestamp(),
+					forwarded.getExecutionTimeMs(),
+					forwarded.getThreadName().orElse(null),
+					host));
+			}
+		}
+		catch (Exception e) {
+			LOGGER.warn("unable to serialize forwarded result {}", event.getResult(), e);
+		}
+	}
+
+	@EventListener
+	@Conditional(value = BinarySuiteMarshallerRequestedCondition.class)
+	public void handleScenarioSkippedEvent(ScenarioSkippedEvent event) {
+		String id = event.getMartini().getId();
+		try {
+			write(new ResultRecord(
+				id, ScenarioSkippedEvent.SKIPPED, ResultRecord.UNKNOWN, ResultRecord.UNKNOWN, null, host));
+		}
+		catch (Exception e) {
+			LOGGER.warn("unable to serialize skipped Martini {}", id, e);
+		}
+	}
+
+	protected void write(ResultRecord record) throws IOException {
+		monitor.enter();
+		try {
+			if (null != writer) {
+				writer.write(record);
+			}
+		}
+		finally {
+			monitor.leave();
+		}
+	}
+
+	@EventListener
+	@Conditional(value = BinarySuiteMarshallerRequestedCondition.class)
+	public void handle(@SuppressWarnings("unused") AfterSuiteEvent ignored) {
+		closeWriter();
+	}
+
+	protected void closeWriter() {
+		monitor.enter();
+		try {
+			if (null != writer) {
+				writer.close();
+			}
+		}
+		catch (IOException e) {
+			LOGGER.error("unable to close binary results", e);
+		}
+		finally {
+			writer = null;
+			monitor.leave();
+		}
+	}
+
+	@Override
+	public void destroy() {
+		closeWriter();
+	}
+}
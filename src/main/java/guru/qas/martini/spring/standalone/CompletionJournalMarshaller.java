@@ -0,0 +1,123 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package guru.qas.martini.spring.standalone;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import guru.qas.martini.event.AfterScenarioEvent;
+import guru.qas.martini.event.AfterSuiteEvent;
+import guru.qas.martini.result.MartiniResult;
+import guru.qas.martini.standalone.harness.CompletionJournalRequestedCondition;
+import guru.qas.martini.standalone.harness.Options;
+import guru.qas.martini.standalone.harness.RemoteResultEvent;
+import guru.qas.martini.standalone.harness.ScenarioSkippedEvent;
+import guru.qas.martini.standalone.io.CompletionJournal;
+import guru.qas.martini.standalone.io.JsonResultReader;
+import guru.qas.martini.standalone.io.ResultRecord;
+
+import static com.google.common.base.Preconditions.checkState;
+
+@SuppressWarnings("WeakerAccess")
+@Component
+@Lazy
+@Conditional(value = CompletionJournalRequestedCondition.class)
+public class CompletionJournalMarshaller implements InitializingBean, DisposableBean {
+
+	protected static final Logger LOGGER = LoggerFactory.getLogger(CompletionJournalMarshaller.class);
+
+	protected final Options options;
+
+	protected CompletionJournal journal;
+
+	@Autowired
+	public CompletionJournalMarshaller(Options options) {
+		this.options = options;
+	}
+
+	@Override
+	public void afterPropertiesSet() throws IOException {
+		File file = options.getJournalFile().orElse(null);
+		checkState(null != file, "no journal file configured");
+		journal = new CompletionJournal(file, options.getJournalSyncInterval());
+		LOGGER.info("journaling completed scenarios to {}", file);
+	}
+
+	@EventListener
+	@Conditional(value = CompletionJournalRequestedCondition.class)
+	public void handleAfterScenarioEvent(AfterScenarioEvent event) {
+		MartiniResult result = event.getPayload();
+		Object status = result.getStatus();
+		append(result.getMartini().getId(), null == status ? null : status.toString());
+	}
+
+	@EventListener
+	@Conditional(value = CompletionJournalRequestedCondition.class)
+	public void handleRemoteResultEvent(RemoteResultEvent event) {
+		ResultRecord record = JsonResultReader.getRecord(event.getResult());
+		if (null != record) {
+			append(record.getId(), record.getStatus().orElse(null));
+		}
+	}
+
+	@EventListener
+	@Conditional(value = CompletionJournalRequestedCondition.class)
+	public void handleScenarioSkippedEvent(ScenarioSkippedEvent event) {
+		append(event.getMartini().getId(), ScenarioSkippedEvent.SKIPPED);
+	}
+
+	protected void append(String id, String status) {
+		try {
+			journal.append(id, status);
+		}
+		catch (Exception e) {
+			LOGGER.warn("unable to journal {} {}", status, id, e);
+		}
+	}
+
+	@EventListener
+	@Conditional(value = CompletionJournalRequestedCondition.class)
+	public void handle(@SuppressWarnings("unused") AfterSuiteEvent ignored) {
+		close();
+	}
+
+	protected void close() {
+		if (null != journal) {
+			try {
+				journal.close();
+			}
+			catch (IOException e) {
+				LOGGER.error("unable to close journal", e);
+			}
+		}
+	}
+
+	@Override
+	public void destroy() {
+		close();
+	}
+}
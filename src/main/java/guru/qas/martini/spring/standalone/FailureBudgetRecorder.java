@@ -0,0 +1,47 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package guru.qas.martini.spring.standalone;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import guru.qas.martini.spring.standalone.configuration.FailureBudgetConfiguration;
+import guru.qas.martini.standalone.harness.FailureBudget;
+import guru.qas.martini.standalone.harness.ScenarioTimedOutEvent;
+
+@SuppressWarnings("WeakerAccess")
+@Component
+@Lazy
+public class FailureBudgetRecorder {
+
+	protected final FailureBudget budget;
+
+	@Autowired
+	public FailureBudgetRecorder(@Qualifier(FailureBudgetConfiguration.BEAN_NAME) FailureBudget budget) {
+		this.budget = budget;
+	}
+
+	@EventListener
+	public void handleScenarioTimedOutEvent(ScenarioTimedOutEvent event) {
+		if (budget.isEnabled()) {
+			budget.record(true);
+		}
+	}
+}
@@ -20,7 +20,12 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.net.NetworkInterface;
+import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -37,6 +42,8 @@ import org.springframework.stereotype.Component;
 import com.google.common.util.concurrent.Monitor;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
 import com.google.gson.stream.JsonWriter;
 
 import guru.qas.martini.Martini;
@@ -56,6 +63,11 @@ import guru.qas.martini.runtime.event.json.StepResultSerializer;
 import guru.qas.martini.runtime.event.json.SuiteIdentifierSerializer;
 import guru.qas.martini.spring.standalone.configuration.JsonOutputResourceConfiguration;
 import guru.qas.martini.standalone.harness.JsonSuiteMarshallerRequestedCondition;
+import guru.qas.martini.standalone.harness.Options;
+import guru.qas.martini.standalone.harness.RemoteResultEvent;
+import guru.qas.martini.standalone.harness.ScenarioSkippedEvent;
+import guru.qas.martini.standalone.harness.ScenarioTimedOutEvent;
+import guru.qas.martini.standalone.io.BatchingWriter;
 import guru.qas.martini.step.StepImplementation;
 
 @SuppressWarnings("WeakerAccess")
@@ -65,6 +77,11 @@ import guru.qas.martini.step.StepImplementation;
 public class JsonSuiteMarshaller implements InitializingBean, DisposableBean {
 
 	protected static final Logger LOGGER = LoggerFactory.getLogger(JsonSuiteMarshaller.class);
+	protected static final String KEY_ID = "id";
+	protected static final String KEY_TIMEOUT = "timeout";
+	protected static final String KEY_STATUS = "status";
+	protected static final String KEY_REASON = "reason";
+	protected static final String KEY_ATTEMPT = "attempt";
 
 	protected final WritableResource outputResource;
 	protected final MartiniResultSerializer martiniResultSerializer;
@@ -73,13 +90,18 @@ public class JsonSuiteMarshaller implements InitializingBean, DisposableBean {
 	protected final StepResultSerializer stepResultSerializer;
 	protected final StepImplementationSerializer stepImplementationSerializer;
 	protected final HostSerializer hostSerializer;
+	protected final Options options;
 	protected final Monitor monitor;
 
 	protected OutputStream outputStream;
 	protected JsonWriter jsonWriter;
 	protected Gson gson;
+	protected BatchingWriter<MartiniResult> batchingWriter;
 
 	protected HashSet<FeatureWrapper> serializedFeatures;
+	protected HashSet<JsonObject> serializedRemoteFeatures;
+	protected ConcurrentMap<String, JsonObject> timeouts;
+	protected ConcurrentMap<String, Integer> attempts;
 
 	@Autowired
 	public JsonSuiteMarshaller(
@@ -89,7 +111,8 @@ public class JsonSuiteMarshaller implements InitializingBean, DisposableBean {
 		FeatureSerializer featureSerializer,
 		StepResultSerializer stepResultSerializer,
 		StepImplementationSerializer stepImplementationSerializer,
-		HostSerializer hostSerializer
+		HostSerializer hostSerializer,
+		Options options
 	) {
 		this.outputResource = outputResource;
 		this.martiniResultSerializer = martiniResultSerializer;
@@ -98,14 +121,21 @@ public class JsonSuiteMarshaller implements InitializingBean, DisposableBean {
 		this.stepResultSerializer = stepResultSerializer;
 		this.stepImplementationSerializer = stepImplementationSerializer;
 		this.hostSerializer = hostSerializer;
+		this.options = options;
 		this.monitor = new Monitor();
 		serializedFeatures = new HashSet<>();
+		serializedRemoteFeatures = new HashSet<>();
+		timeouts = new ConcurrentHashMap<>();
+		attempts = new ConcurrentHashMap<>();
 	}
 
 	@Override
 	@Conditional(value = JsonSuiteMarshallerRequestedCondition.class)
 	public void afterPropertiesSet() throws Exception {
 		serializedFeatures.clear();
+		serializedRemoteFeatures.clear();
+		timeouts.clear();
+		attempts.clear();
 
 		GsonBuilder builder = getGsonBuilder();
 		registerTypeAdapters(builder);
@@ -115,14 +145,40 @@ public class JsonSuiteMarshaller implements InitializingBean, DisposableBean {
 		OutputStreamWriter writer = new OutputStreamWriter(outputStream);
 		jsonWriter = gson.newJsonWriter(writer);
 
+		if (options.isJsonOutputAsync()) {
+			startBatchingWriter();
+		}
+
 		LOGGER.info("writing JSON to {}", outputResource);
 	}
 
+	protected void startBatchingWriter() {
+		BatchingWriter.Handler<MartiniResult> handler = new BatchingWriter.Handler<>() {
+			@Override
+			public void write(List<MartiniResult> batch) {
+				serialize(batch);
+			}
+
+			@Override
+			public void flush() throws IOException {
+				flushJsonWriter();
+			}
+		};
+
+		batchingWriter = new BatchingWriter<>(
+			"martini-json-writer",
+			options.getJsonBufferCapacity(),
+			options.getJsonBatchSize(),
+			options.getJsonFlushIntervalMs(),
+			handler);
+		batchingWriter.start();
+	}
+
 	protected GsonBuilder getGsonBuilder() {
-		return new GsonBuilder()
-			.setPrettyPrinting()
+		GsonBuilder builder = new GsonBuilder()
 			.setLenient()
 			.serializeNulls();
+		return options.isJsonOutputCompact() ? builder : builder.setPrettyPrinting();
 	}
 
 	protected void registerTypeAdapters(GsonBuilder builder) {
@@ -162,6 +218,35 @@ public class JsonSuiteMarshaller implements InitializingBean, DisposableBean {
 	@Conditional(value = JsonSuiteMarshallerRequestedCondition.class)
 	public void handleAfterScenarioEvent(AfterScenarioEvent event) {
 		MartiniResult result = event.getPayload();
+		if (null == batchingWriter) {
+			serializeResult(result);
+		}
+		else {
+			enqueue(result);
+		}
+	}
+
+	protected void enqueue(MartiniResult result) {
+		try {
+			batchingWriter.put(result);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			LOGGER.warn("interrupted while buffering MartiniResult {}", result, e);
+		}
+	}
+
+	protected void serialize(List<MartiniResult> batch) {
+		monitor.enter();
+		try {
+			batch.forEach(this::serializeResult);
+		}
+		finally {
+			monitor.leave();
+		}
+	}
+
+	protected void serializeResult(MartiniResult result) {
 		try {
 			serializeFeature(result);
 			serialize(result);
@@ -171,6 +256,16 @@ public class JsonSuiteMarshaller implements InitializingBean, DisposableBean {
 		}
 	}
 
+	protected void flushJsonWriter() throws IOException {
+		monitor.enter();
+		try {
+			jsonWriter.flush();
+		}
+		finally {
+			monitor.leave();
+		}
+	}
+
 	protected void serializeFeature(MartiniResult result) throws IOException {
 		Martini martini = result.getMartini();
 		Recipe recipe = martini.getRecipe();
@@ -183,7 +278,7 @@ public class JsonSuiteMarshaller implements InitializingBean, DisposableBean {
 		try {
 			if (!serializedFeatures.contains(feature)) {
 				gson.toJson(feature, FeatureWrapper.class, jsonWriter);
-				jsonWriter.flush();
+				flushUnlessBatching();
 				serializedFeatures.add(feature);
 			}
 		}
@@ -193,21 +288,108 @@ public class JsonSuiteMarshaller implements InitializingBean, DisposableBean {
 	}
 
 	protected void serialize(MartiniResult result) throws IOException {
+		String id = result.getMartini().getId();
+		JsonObject timeout = timeouts.remove(id);
+		int attempt = 1 < options.getMaxAttempts() ? attempts.merge(id, 1, Integer::sum) : 0;
 		monitor.enter();
 		try {
-			gson.toJson(result, MartiniResult.class, jsonWriter);
-			jsonWriter.flush();
+			if (null == timeout && 0 == attempt) {
+				gson.toJson(result, MartiniResult.class, jsonWriter);
+			}
+			else {
+				JsonObject tree = gson.toJsonTree(result, MartiniResult.class).getAsJsonObject();
+				if (null != timeout) {
+					tree.add(KEY_TIMEOUT, timeout);
+				}
+				if (0 < attempt) {
+					tree.addProperty(KEY_ATTEMPT, attempt);
+				}
+				gson.toJson(tree, jsonWriter);
+			}
+			flushUnlessBatching();
 		}
 		finally {
 			monitor.leave();
 		}
 	}
 
+	@EventListener
+	@Conditional(value = JsonSuiteMarshallerRequestedCondition.class)
+	public void handleRemoteResultEvent(RemoteResultEvent event) {
+		monitor.enter();
+		try {
+			JsonObject feature = event.getFeature().orElse(null);
+			if (null != feature && serializedRemoteFeatures.add(feature)) {
+				gson.toJson(feature, jsonWriter);
+			}
+			gson.toJson(event.getResult(), jsonWriter);
+			flushUnlessBatching();
+		}
+		catch (Exception e) {
+			LOGGER.warn("unable to serialize forwarded result {}", event.getResult(), e);
+		}
+		finally {
+			monitor.leave();
+		}
+	}
+
+	@EventListener
+	@Conditional(value = JsonSuiteMarshallerRequestedCondition.class)
+	public void handleScenarioTimedOutEvent(ScenarioTimedOutEvent event) {
+		JsonArray stackTrace = new JsonArray();
+		Arrays.stream(event.getStackTrace()).map(String::valueOf).forEach(stackTrace::add);
+
+		JsonObject timeout = new JsonObject();
+		timeout.addProperty("timeoutMs", event.getTimeout().toMillis());
+		timeout.addProperty("thread", event.getThreadName());
+		timeout.add("stackTrace", stackTrace);
+		timeouts.put(event.getMartini().getId(), timeout);
+	}
+
+	@EventListener
+	@Conditional(value = JsonSuiteMarshallerRequestedCondition.class)
+	public void handleScenarioSkippedEvent(ScenarioSkippedEvent event) {
+		JsonObject record = new JsonObject();
+		record.addProperty(KEY_ID, event.getMartini().getId());
+		record.addProperty(KEY_STATUS, ScenarioSkippedEvent.SKIPPED);
+		record.addProperty(KEY_REASON, event.getReason());
+
+		monitor.enter();
+		try {
+			gson.toJson(record, jsonWriter);
+			flushUnlessBatching();
+		}
+		catch (Exception e) {
+			LOGGER.warn("unable to serialize skipped Martini {}", event.getMartini(), e);
+		}
+		finally {
+			monitor.leave();
+		}
+	}
+
+	protected void serializeUnreportedTimeouts() throws IOException {
+		for (Map.Entry<String, JsonObject> entry : timeouts.entrySet()) {
+			JsonObject record = new JsonObject();
+			record.addProperty(KEY_ID, entry.getKey());
+			record.add(KEY_TIMEOUT, entry.getValue());
+			gson.toJson(record, jsonWriter);
+		}
+		timeouts.clear();
+	}
+
+	protected void flushUnlessBatching() throws IOException {
+		if (null == batchingWriter) {
+			jsonWriter.flush();
+		}
+	}
+
 	@EventListener
 	@Conditional(value = JsonSuiteMarshallerRequestedCondition.class)
 	public void handle(@SuppressWarnings("unused") AfterSuiteEvent ignored) {
+		closeBatchingWriter();
 		monitor.enter();
 		try {
+			serializeUnreportedTimeouts();
 			jsonWriter.endArray();
 			jsonWriter.flush();
 			jsonWriter.close();
@@ -221,6 +403,18 @@ public class JsonSuiteMarshaller implements InitializingBean, DisposableBean {
 		}
 	}
 
+	protected void closeBatchingWriter() {
+		if (null != batchingWriter) {
+			try {
+				batchingWriter.close();
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				LOGGER.error("interrupted while draining JSON writer", e);
+			}
+		}
+	}
+
 	protected void closeOutputStream() {
 		if (null != outputStream) {
 			try {
@@ -238,6 +432,7 @@ public class JsonSuiteMarshaller implements InitializingBean, DisposableBean {
 
 	@Override
 	public void destroy() {
+		closeBatchingWriter();
 		closeOutputStream();
 	}
 }
\ No newline at end of file
@@ -0,0 +1,100 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package guru.qas.martini.spring.standalone;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.util.Map;
+
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import guru.qas.martini.event.AfterSuiteEvent;
+import guru.qas.martini.spring.standalone.configuration.LatencyRecorderConfiguration;
+import guru.qas.martini.standalone.harness.LatencyRecorder;
+import guru.qas.martini.standalone.harness.Options;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+@SuppressWarnings("WeakerAccess")
+@Component
+@Lazy
+public class LatencySummaryMarshaller {
+
+	protected static final Logger LOGGER = LoggerFactory.getLogger(LatencySummaryMarshaller.class);
+	protected static final double NANOS_PER_MILLISECOND = 1_000_000d;
+
+	protected final LatencyRecorder recorder;
+	protected final Options options;
+
+	@Autowired
+	public LatencySummaryMarshaller(
+		@Qualifier(LatencyRecorderConfiguration.BEAN_NAME) LatencyRecorder recorder,
+		Options options
+	) {
+		this.recorder = recorder;
+		this.options = options;
+	}
+
+	@EventListener
+	public void handle(@SuppressWarnings("unused") AfterSuiteEvent ignored) {
+		Map<String, Histogram> histograms = recorder.getHistograms();
+		histograms.forEach(this::log);
+		options.getLatencyOutputFile().ifPresent(file -> write(file, histograms));
+	}
+
+	protected void log(String name, Histogram histogram) {
+		if (0 < histogram.getTotalCount()) {
+			LOGGER.info("{} ms: count {}, p50 {}, p90 {}, p99 {}, max {}",
+				name,
+				histogram.getTotalCount(),
+				toMilliseconds(histogram.getValueAtPercentile(50)),
+				toMilliseconds(histogram.getValueAtPercentile(90)),
+				toMilliseconds(histogram.getValueAtPercentile(99)),
+				toMilliseconds(histogram.getMaxValue()));
+		}
+	}
+
+	protected String toMilliseconds(long nanos) {
+		return String.format("%.3f", nanos / NANOS_PER_MILLISECOND);
+	}
+
+	protected void write(File file, Map<String, Histogram> histograms) {
+		try (OutputStream outputStream = Files.newOutputStream(file.toPath());
+			 PrintStream printStream = new PrintStream(outputStream, false, UTF_8)
+		) {
+			for (Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+				printStream.printf("# %s (milliseconds)%n", entry.getKey());
+				entry.getValue().outputPercentileDistribution(printStream, NANOS_PER_MILLISECOND);
+				printStream.println();
+			}
+			LOGGER.info("wrote latency histograms to {}", file);
+		}
+		catch (IOException e) {
+			LOGGER.warn("unable to write latency histograms to {}", file, e);
+		}
+	}
+}
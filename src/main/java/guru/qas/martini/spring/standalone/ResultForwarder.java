@@ -0,0 +1,136 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package guru.qas.martini.spring.standalone;
+
+import java.net.NetworkInterface;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.Nonnull;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+
+import guru.qas.martini.Martini;
+import guru.qas.martini.event.AfterScenarioEvent;
+import guru.qas.martini.event.SuiteIdentifier;
+import guru.qas.martini.gherkin.FeatureWrapper;
+import guru.qas.martini.result.MartiniResult;
+import guru.qas.martini.result.StepResult;
+import guru.qas.martini.runtime.event.json.FeatureSerializer;
+import guru.qas.martini.runtime.event.json.HostSerializer;
+import guru.qas.martini.runtime.event.json.MartiniResultSerializer;
+import guru.qas.martini.runtime.event.json.StepImplementationSerializer;
+import guru.qas.martini.runtime.event.json.StepResultSerializer;
+import guru.qas.martini.runtime.event.json.SuiteIdentifierSerializer;
+import guru.qas.martini.standalone.harness.ResultForwardingRequestedCondition;
+import guru.qas.martini.step.StepImplementation;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+@SuppressWarnings("WeakerAccess")
+@Component
+@Lazy
+@Conditional(value = ResultForwardingRequestedCondition.class)
+public class ResultForwarder implements InitializingBean {
+
+	public static final String KEY_FEATURE = "feature";
+	public static final String KEY_RESULT = "result";
+
+	protected static final Logger LOGGER = LoggerFactory.getLogger(ResultForwarder.class);
+
+	protected final MartiniResultSerializer martiniResultSerializer;
+	protected final SuiteIdentifierSerializer suiteIdentifierSerializer;
+	protected final FeatureSerializer featureSerializer;
+	protected final StepResultSerializer stepResultSerializer;
+	protected final StepImplementationSerializer stepImplementationSerializer;
+	protected final HostSerializer hostSerializer;
+	protected final Map<String, String> pending;
+	protected final Set<FeatureWrapper> forwardedFeatures;
+
+	protected Gson gson;
+
+	@Autowired
+	public ResultForwarder(
+		MartiniResultSerializer martiniResultSerializer,
+		SuiteIdentifierSerializer suiteIdentifierSerializer,
+		FeatureSerializer featureSerializer,
+		StepResultSerializer stepResultSerializer,
+		StepImplementationSerializer stepImplementationSerializer,
+		HostSerializer hostSerializer
+	) {
+		this.martiniResultSerializer = martiniResultSerializer;
+		this.suiteIdentifierSerializer = suiteIdentifierSerializer;
+		this.featureSerializer = featureSerializer;
+		this.stepResultSerializer = stepResultSerializer;
+		this.stepImplementationSerializer = stepImplementationSerializer;
+		this.hostSerializer = hostSerializer;
+		this.pending = new ConcurrentHashMap<>();
+		this.forwardedFeatures = ConcurrentHashMap.newKeySet();
+	}
+
+	@Override
+	public void afterPropertiesSet() {
+		gson = new GsonBuilder()
+			.setLenient()
+			.serializeNulls()
+			.registerTypeAdapter(MartiniResult.class, martiniResultSerializer)
+			.registerTypeAdapter(SuiteIdentifier.class, suiteIdentifierSerializer)
+			.registerTypeAdapter(NetworkInterface.class, hostSerializer)
+			.registerTypeAdapter(FeatureWrapper.class, featureSerializer)
+			.registerTypeAdapter(StepResult.class, stepResultSerializer)
+			.registerTypeAdapter(StepImplementation.class, stepImplementationSerializer)
+			.create();
+	}
+
+	@EventListener
+	@Conditional(value = ResultForwardingRequestedCondition.class)
+	public void handleAfterScenarioEvent(AfterScenarioEvent event) {
+		MartiniResult result = event.getPayload();
+		try {
+			Martini martini = result.getMartini();
+			FeatureWrapper feature = martini.getRecipe().getFeatureWrapper();
+
+			JsonObject forwarded = new JsonObject();
+			if (forwardedFeatures.add(feature)) {
+				forwarded.add(KEY_FEATURE, gson.toJsonTree(feature, FeatureWrapper.class));
+			}
+			forwarded.add(KEY_RESULT, gson.toJsonTree(result, MartiniResult.class));
+			pending.put(martini.getId(), gson.toJson(forwarded));
+		}
+		catch (Exception e) {
+			LOGGER.warn("unable to serialize MartiniResult {}", result, e);
+		}
+	}
+
+	public Optional<String> take(@Nonnull String id) {
+		checkNotNull(id, "null String");
+		return Optional.ofNullable(pending.remove(id));
+	}
+}
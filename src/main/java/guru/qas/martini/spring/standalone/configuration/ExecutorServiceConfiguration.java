@@ -0,0 +1,123 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package guru.qas.martini.spring.standalone.configuration;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import guru.qas.martini.standalone.harness.ExecutorType;
+import guru.qas.martini.standalone.harness.Options;
+
+@SuppressWarnings("WeakerAccess")
+@Configuration
+@Lazy
+public class ExecutorServiceConfiguration implements DisposableBean {
+
+	protected static final Logger LOGGER = LoggerFactory.getLogger(ExecutorServiceConfiguration.class);
+
+	public static final String BEAN_NAME = "martiniExecutorService";
+
+	protected final Options options;
+	protected final Thread.UncaughtExceptionHandler exceptionHandler;
+
+	protected ExecutorService threadPerTaskExecutor;
+
+	@Autowired
+	ExecutorServiceConfiguration(
+		Options options,
+		@Qualifier(UncaughtExceptionHandlerConfiguration.BEAN_NAME) Thread.UncaughtExceptionHandler exceptionHandler
+	) {
+		this.options = options;
+		this.exceptionHandler = exceptionHandler;
+	}
+
+	@Bean(name = BEAN_NAME)
+	ExecutorService getExecutorService(@Qualifier(ForkJoinPoolConfiguration.BEAN_NAME) ForkJoinPool forkJoinPool) {
+		return ExecutorType.VIRTUAL == options.getExecutorType() ? getThreadPerTaskExecutor() : forkJoinPool;
+	}
+
+	protected ExecutorService getThreadPerTaskExecutor() {
+		LOGGER.info("creating thread-per-scenario executor with maximum concurrency {}", options.getMaxConcurrency());
+		threadPerTaskExecutor = getVirtualThreadPerTaskExecutor().orElseGet(() -> {
+			LOGGER.warn("virtual threads unavailable in Java {}; executing scenarios on platform threads",
+				Runtime.version());
+			return getPlatformThreadPerTaskExecutor();
+		});
+		return threadPerTaskExecutor;
+	}
+
+	protected Optional<ExecutorService> getVirtualThreadPerTaskExecutor() {
+		try {
+			Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			return Optional.of((ExecutorService) method.invoke(null));
+		}
+		catch (NoSuchMethodException e) {
+			return Optional.empty();
+		}
+		catch (InvocationTargetException e) {
+			if (e.getCause() instanceof UnsupportedOperationException) {
+				return Optional.empty();
+			}
+			throw new IllegalStateException("unable to create virtual thread executor", e.getCause());
+		}
+		catch (ReflectiveOperationException e) {
+			throw new IllegalStateException("unable to create virtual thread executor", e);
+		}
+	}
+
+	protected ExecutorService getPlatformThreadPerTaskExecutor() {
+		ThreadFactory threadFactory = new ThreadFactoryBuilder()
+			.setNameFormat("martini-%d")
+			.setDaemon(true)
+			.setUncaughtExceptionHandler(exceptionHandler)
+			.build();
+		return Executors.newCachedThreadPool(threadFactory);
+	}
+
+	@Override
+	public void destroy() throws InterruptedException {
+		if (null != threadPerTaskExecutor && !threadPerTaskExecutor.isShutdown()) {
+			Long seconds = options.getAwaitTerminationSeconds().orElse(null);
+			if (null == seconds) {
+				threadPerTaskExecutor.shutdownNow();
+			}
+			else {
+				threadPerTaskExecutor.shutdown();
+				if (!threadPerTaskExecutor.awaitTermination(seconds, TimeUnit.SECONDS)) {
+					threadPerTaskExecutor.shutdownNow();
+				}
+			}
+		}
+	}
+}
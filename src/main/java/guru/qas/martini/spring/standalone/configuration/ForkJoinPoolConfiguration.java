@@ -16,8 +16,10 @@ limitations under the License.
 
 package guru.qas.martini.spring.standalone.configuration;
 
+import java.util.List;
 import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import javax.annotation.Nonnull;
 
@@ -35,6 +37,8 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Lazy;
 
 import guru.qas.martini.standalone.harness.Options;
+import guru.qas.martini.standalone.harness.WorkerLifecycleListener;
+import guru.qas.martini.standalone.harness.WorkerLifecycleThreadFactory;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
@@ -71,7 +75,11 @@ public class ForkJoinPoolConfiguration implements DisposableBean, ApplicationCon
 	@Bean(name = BEAN_NAME)
 	ForkJoinPool getForkJoinPool() {
 		LOGGER.info("creating ForkJoinPool with parallelization {}", options.getParallelism());
-		ForkJoinPool.ForkJoinWorkerThreadFactory factory = ForkJoinPool.defaultForkJoinWorkerThreadFactory;
+		List<WorkerLifecycleListener> listeners = beanFactory.getBeanProvider(WorkerLifecycleListener.class)
+			.orderedStream()
+			.collect(Collectors.toList());
+		ForkJoinPool.ForkJoinWorkerThreadFactory factory = listeners.isEmpty() ?
+			ForkJoinPool.defaultForkJoinWorkerThreadFactory : new WorkerLifecycleThreadFactory(listeners);
 		forkJoinPool = new ForkJoinPool(options.getParallelism(), factory, exceptionHandler, true);
 		return forkJoinPool;
 	}
@@ -25,6 +25,7 @@ import org.springframework.context.annotation.Lazy;
 import org.springframework.core.io.WritableResource;
 
 import guru.qas.martini.standalone.harness.Options;
+import guru.qas.martini.standalone.io.Compression;
 import guru.qas.martini.standalone.io.OptionedFileSystemResource;
 
 import static java.nio.file.StandardOpenOption.*;
@@ -40,6 +41,7 @@ public class JsonOutputResourceConfiguration {
 		File file = options.getJsonOutputFile().orElseThrow(() -> new IllegalStateException("null File"));
 		OpenOption[] openOptions = new OpenOption[]{
 			options.isJsonOutputFileOverwrite() ? CREATE : CREATE_NEW, TRUNCATE_EXISTING};
-		return new OptionedFileSystemResource(file, openOptions);
+		Compression compression = options.getJsonCompression().orElse(Compression.forFile(file));
+		return new OptionedFileSystemResource(file, compression, openOptions);
 	}
 }
@@ -0,0 +1,91 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package guru.qas.martini.standalone.harness;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.Socket;
+import java.util.Optional;
+
+import javax.annotation.Nonnull;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static guru.qas.martini.standalone.harness.CoordinatorProtocol.*;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+@SuppressWarnings("WeakerAccess")
+public class CoordinatorConnection implements Closeable {
+
+	protected final Socket socket;
+	protected final BufferedReader reader;
+	protected final BufferedWriter writer;
+
+	public CoordinatorConnection(@Nonnull Socket socket) throws IOException {
+		this.socket = checkNotNull(socket, "null Socket");
+		socket.setTcpNoDelay(true);
+		reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), UTF_8));
+		writer = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), UTF_8));
+	}
+
+	public Optional<String> next() throws IOException {
+		send(NEXT, null);
+		String line = reader.readLine();
+		String command = null == line ? null : getCommand(line);
+
+		String id;
+		if (DONE.equals(command)) {
+			id = null;
+		}
+		else if (RUN.equals(command) && getArgument(line).isPresent()) {
+			id = getArgument(line).get();
+		}
+		else {
+			throw new IOException("unexpected coordinator response: " + line);
+		}
+		return Optional.ofNullable(id);
+	}
+
+	public void result(@Nonnull String json) throws IOException {
+		checkNotNull(json, "null String");
+		send(RESULT, json);
+	}
+
+	public void complete(@Nonnull String id) throws IOException {
+		checkNotNull(id, "null String");
+		send(COMPLETE, id);
+	}
+
+	public void timedOut(@Nonnull String id) throws IOException {
+		checkNotNull(id, "null String");
+		send(TIMED_OUT, id);
+	}
+
+	protected synchronized void send(String command, String argument) throws IOException {
+		writer.write(format(command, argument));
+		writer.newLine();
+		writer.flush();
+	}
+
+	@Override
+	public void close() throws IOException {
+		socket.close();
+	}
+}
@@ -0,0 +1,334 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package guru.qas.martini.standalone.harness;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketAddress;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Configurable;
+import org.springframework.beans.factory.annotation.Qualifier;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import exception.MartiniException;
+import guru.qas.martini.Martini;
+import guru.qas.martini.Mixologist;
+import guru.qas.martini.event.SuiteIdentifier;
+import guru.qas.martini.runtime.event.EventManager;
+import guru.qas.martini.spring.standalone.ResultForwarder;
+import guru.qas.martini.spring.standalone.configuration.ExecutorServiceConfiguration;
+import guru.qas.martini.spring.standalone.configuration.ForkJoinPoolConfiguration;
+import guru.qas.martini.spring.standalone.configuration.MartiniComparatorConfiguration;
+import guru.qas.martini.standalone.io.JsonResultReader;
+import guru.qas.martini.standalone.io.ResultRecord;
+
+import static guru.qas.martini.standalone.harness.CoordinatorProtocol.*;
+import static guru.qas.martini.standalone.harness.DefaultMartiniStandaloneEngineMessages.*;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+@SuppressWarnings("WeakerAccess")
+@Configurable
+public class CoordinatorMartiniStandaloneEngine extends DefaultMartiniStandaloneEngine {
+
+	protected final AtomicInteger sessionCount;
+
+	@Autowired
+	CoordinatorMartiniStandaloneEngine(
+		Options options,
+		Mixologist mixologist,
+		SuiteIdentifier suiteIdentifier,
+		@Qualifier(MartiniComparatorConfiguration.BEAN_NAME) Comparator<Martini> martiniComparator,
+		TaskFactory taskFactory,
+		EventManager eventManager,
+		@Qualifier(ForkJoinPoolConfiguration.BEAN_NAME) ForkJoinPool forkJoinPool,
+		@Qualifier(ExecutorServiceConfiguration.BEAN_NAME) ExecutorService executorService
+	) {
+		super(options, mixologist, suiteIdentifier, martiniComparator, taskFactory, eventManager, forkJoinPool,
+			executorService);
+		sessionCount = new AtomicInteger();
+	}
+
+	@Override
+	protected Runnable getRunnable(Collection<Martini> martinis) {
+		int port = getPort();
+		MartiniIterator i = getMartiniIterator(martinis);
+		return () -> coordinate(i, port);
+	}
+
+	protected int getPort() {
+		return options.getCoordinatorPort().orElseThrow(() -> new IllegalStateException("no coordinator port"));
+	}
+
+	protected void coordinate(MartiniIterator i, int port) {
+		Coordinator coordinator = new Coordinator(i);
+		try (ServerSocket serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress())) {
+			logger.info("coordinating {} Martinis for workers on {}",
+				i.getRemaining(), serverSocket.getLocalSocketAddress());
+			startThread("martini-coordinator", () -> accept(serverSocket, coordinator));
+			startWorkers(serverSocket.getLocalPort());
+			coordinator.awaitCompletion();
+		}
+		catch (IOException e) {
+			throw new MartiniException(e, COORDINATOR_BIND_FAILED, port);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new MartiniException(e, EXECUTION_INTERRUPTED);
+		}
+		finally {
+			stopWorkers();
+		}
+		logDispatchSummary(i);
+		if (0 < coordinator.requeued) {
+			logger.warn("{} Martinis requeued after their workers disconnected", coordinator.requeued);
+		}
+		if (0 < coordinator.abandoned) {
+			logger.warn("{} Martinis abandoned by disconnected workers", coordinator.abandoned);
+		}
+	}
+
+	protected void startWorkers(int port) {
+	}
+
+	protected void assertWorkersAvailable(int remaining) {
+	}
+
+	protected void stopWorkers() {
+	}
+
+	protected ResultRecord publishResult(String json) {
+		try {
+			JsonObject forwarded = JsonParser.parseString(json).getAsJsonObject();
+			JsonElement feature = forwarded.get(ResultForwarder.KEY_FEATURE);
+			JsonObject result = forwarded.getAsJsonObject(ResultForwarder.KEY_RESULT);
+			JsonObject featureObject = null != feature && feature.isJsonObject() ? feature.getAsJsonObject() : null;
+			applicationContext.publishEvent(new RemoteResultEvent(this, featureObject, result));
+			return JsonResultReader.getRecord(result);
+		}
+		catch (RuntimeException e) {
+			logger.warn("unable to publish result forwarded by worker", e);
+			return null;
+		}
+	}
+
+	protected void accept(ServerSocket serverSocket, Coordinator coordinator) {
+		while (!serverSocket.isClosed()) {
+			try {
+				Socket socket = serverSocket.accept();
+				Session session = new Session(socket, coordinator);
+				startThread("martini-coordinator-session-" + sessionCount.incrementAndGet(), session);
+			}
+			catch (IOException e) {
+				if (!serverSocket.isClosed()) {
+					logger.warn("unable to accept worker connection", e);
+				}
+			}
+		}
+	}
+
+	protected void startThread(String name, Runnable runnable) {
+		Thread thread = new Thread(runnable, name);
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	protected class Coordinator {
+
+		protected final MartiniIterator iterator;
+		protected int outstanding;
+		protected long releases;
+		protected int requeued;
+		protected int abandoned;
+
+		protected Coordinator(MartiniIterator iterator) {
+			this.iterator = iterator;
+		}
+
+		protected Martini awaitNext() throws InterruptedException {
+			Martini next = null;
+			while (null == next && isPending() && !isDispatchHalted(iterator)) {
+				long observed = getReleases();
+				next = iterator.next().orElse(null);
+				if (null == next) {
+					awaitRelease(observed);
+				}
+				else {
+					dispatched();
+				}
+			}
+			return next;
+		}
+
+		protected synchronized boolean isPending() {
+			return iterator.hasNext() || 0 < outstanding;
+		}
+
+		protected synchronized long getReleases() {
+			return releases;
+		}
+
+		protected synchronized void awaitRelease(long observed) throws InterruptedException {
+			boolean waiting = observed == releases && isPending();
+			while (waiting) {
+				wait(options.getMartiniGatePollTimeoutMs());
+				waiting = observed == releases && isPending() && !iterator.isDeferred();
+			}
+		}
+
+		protected synchronized void dispatched() {
+			outstanding++;
+			notifyAll();
+		}
+
+		protected void complete(Martini martini, boolean failed) {
+			iterator.release(martini);
+			boolean retry = failed && iterator.retry(martini);
+			if (retry) {
+				logger.info("{} failed; queued for another attempt", martini.getId());
+			}
+			else if (null != failureBudget && failureBudget.isEnabled()) {
+				failureBudget.record(failed);
+			}
+			completed(false, false);
+		}
+
+		protected void abandon(Martini martini, SocketAddress worker) {
+			iterator.release(martini);
+			boolean requeue = iterator.requeue(martini);
+			if (!requeue) {
+				String reason = String.format("lost with disconnected worker %s", worker);
+				applicationContext.publishEvent(
+					new ScenarioSkippedEvent(CoordinatorMartiniStandaloneEngine.this, martini, reason));
+			}
+			completed(requeue, !requeue);
+		}
+
+		protected synchronized void completed(boolean requeue, boolean abandon) {
+			outstanding--;
+			releases++;
+			requeued += requeue ? 1 : 0;
+			abandoned += abandon ? 1 : 0;
+			notifyAll();
+		}
+
+		protected synchronized void awaitCompletion() throws InterruptedException {
+			while (iterator.hasNext() || 0 < outstanding) {
+				wait(options.getMartiniGatePollTimeoutMs());
+				assertWorkersAvailable(iterator.getRemaining() + outstanding);
+			}
+		}
+	}
+
+	protected class Session implements Runnable {
+
+		protected final Socket socket;
+		protected final Coordinator coordinator;
+		protected final Map<String, Martini> assigned;
+		protected final Set<String> failed;
+
+		protected Session(Socket socket, Coordinator coordinator) {
+			this.socket = socket;
+			this.coordinator = coordinator;
+			this.assigned = new HashMap<>();
+			this.failed = new HashSet<>();
+		}
+
+		@Override
+		public void run() {
+			SocketAddress worker = socket.getRemoteSocketAddress();
+			logger.info("worker connected from {}", worker);
+			try (Socket closeable = socket;
+				 BufferedReader reader = new BufferedReader(new InputStreamReader(closeable.getInputStream(), UTF_8));
+				 BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(closeable.getOutputStream(), UTF_8))
+			) {
+				String line;
+				while (null != (line = reader.readLine())) {
+					handle(line, writer);
+				}
+			}
+			catch (IOException e) {
+				logger.warn("lost connection to worker {}", worker, e);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			finally {
+				abandon(worker);
+			}
+		}
+
+		protected void handle(String line, BufferedWriter writer) throws IOException, InterruptedException {
+			String command = getCommand(line);
+			String argument = getArgument(line).orElse(null);
+
+			if (NEXT.equals(command)) {
+				Martini next = coordinator.awaitNext();
+				if (null != next) {
+					assigned.put(next.getId(), next);
+				}
+				writer.write(null == next ? DONE : format(RUN, next.getId()));
+				writer.newLine();
+				writer.flush();
+			}
+			else if (RESULT.equals(command) && null != argument) {
+				ResultRecord record = publishResult(argument);
+				if (null != record && FailureBudget.FAILED.equals(record.getStatus().orElse(null))) {
+					failed.add(record.getId());
+				}
+			}
+			else if (COMPLETE.equals(command) && assigned.containsKey(argument)) {
+				coordinator.complete(assigned.remove(argument), failed.remove(argument));
+			}
+			else if (TIMED_OUT.equals(command) && assigned.containsKey(argument)) {
+				logger.warn("{} timed out on worker {}", argument, socket.getRemoteSocketAddress());
+				failed.remove(argument);
+				coordinator.complete(assigned.remove(argument), true);
+			}
+			else {
+				throw new IOException("unexpected worker request: " + line);
+			}
+		}
+
+		protected void abandon(SocketAddress worker) {
+			if (!assigned.isEmpty()) {
+				logger.warn("worker {} disconnected while executing {}", worker, assigned.keySet());
+			}
+			new ArrayList<>(assigned.values()).forEach(martini -> coordinator.abandon(martini, worker));
+			assigned.clear();
+		}
+	}
+}
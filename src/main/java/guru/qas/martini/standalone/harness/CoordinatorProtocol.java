@@ -0,0 +1,58 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package guru.qas.martini.standalone.harness;
+
+import java.util.Optional;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+@SuppressWarnings("WeakerAccess")
+public final class CoordinatorProtocol {
+
+	public static final String NEXT = "NEXT";
+	public static final String RUN = "RUN";
+	public static final String RESULT = "RESULT";
+	public static final String COMPLETE = "COMPLETE";
+	public static final String TIMED_OUT = "TIMED_OUT";
+	public static final String DONE = "DONE";
+
+	private CoordinatorProtocol() {
+	}
+
+	@Nonnull
+	public static String format(@Nonnull String command, @Nullable String argument) {
+		checkNotNull(command, "null String");
+		return null == argument ? command : command + ' ' + argument;
+	}
+
+	@Nonnull
+	public static String getCommand(@Nonnull String line) {
+		checkNotNull(line, "null String");
+		int separator = line.indexOf(' ');
+		return -1 == separator ? line : line.substring(0, separator);
+	}
+
+	@Nonnull
+	public static Optional<String> getArgument(@Nonnull String line) {
+		checkNotNull(line, "null String");
+		int separator = line.indexOf(' ');
+		return Optional.ofNullable(-1 == separator ? null : line.substring(separator + 1));
+	}
+}
@@ -16,11 +16,10 @@ limitations under the License.
 
 package guru.qas.martini.standalone.harness;
 
+import java.util.Collection;
 import java.util.Comparator;
-
-import com.google.common.base.Function;
-import com.google.common.collect.Ordering;
-import com.google.common.collect.Sets;
+import java.util.HashSet;
+import java.util.Set;
 
 import guru.qas.martini.Martini;
 import guru.qas.martini.gate.MartiniGate;
@@ -28,35 +27,24 @@ import guru.qas.martini.gate.MartiniGate;
 @SuppressWarnings("WeakerAccess")
 public class DefaultMartiniComparator implements Comparator<Martini> {
 
-	private Ordering<Martini> ordering;
-
-	public DefaultMartiniComparator() {
-		Comparator<Martini> permitCountComparator = Ordering.natural().onResultOf(new PermitCountFunction());
-		Comparator<Martini> gateCountComparator = Ordering.natural().onResultOf(new GateCountFunction());
-		ordering = Ordering.from(permitCountComparator).compound(gateCountComparator);
-	}
-
 	@Override
 	public int compare(Martini left, Martini right) {
-		return ordering.compare(left, right);
+		return Long.compare(getSortKey(left), getSortKey(right));
 	}
 
-	protected class PermitCountFunction implements Function<Martini, Integer> {
-
-		@Override
-		public Integer apply(Martini martini) {
-			return null == martini ? null : martini.getGates().stream()
-				.map(MartiniGate::getPermits)
-				.min(Ordering.natural())
-				.orElse(Integer.MAX_VALUE);
+	public long getSortKey(Martini martini) {
+		Collection<MartiniGate> gates = martini.getGates();
+		int minimumPermits = Integer.MAX_VALUE;
+		for (MartiniGate gate : gates) {
+			minimumPermits = Math.min(minimumPermits, Math.max(0, gate.getPermits()));
 		}
-	}
 
-	protected class GateCountFunction implements Function<Martini, Integer> {
+		long permitKey = (long) minimumPermits << 32;
+		long gateKey = Integer.MAX_VALUE - getDistinctCount(gates);
+		return permitKey | gateKey;
+	}
 
-		@Override
-		public Integer apply(Martini martini) {
-			return null == martini ? null : Sets.newHashSet(martini.getGates()).size() * -1;
-		}
+	protected static int getDistinctCount(Collection<MartiniGate> gates) {
+		return gates.size() < 2 || gates instanceof Set ? gates.size() : new HashSet<>(gates).size();
 	}
 }
@@ -16,15 +16,27 @@ limitations under the License.
 
 package guru.qas.martini.standalone.harness;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.Collection;
 
 import java.util.Comparator;
-import java.util.Iterator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import javax.annotation.Nonnull;
@@ -39,6 +51,14 @@ import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
+import org.springframework.context.expression.BeanFactoryResolver;
+import org.springframework.expression.Expression;
+import org.springframework.expression.ExpressionException;
+import org.springframework.expression.MethodResolver;
+import org.springframework.expression.PropertyAccessor;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
 
 import com.google.common.base.Joiner;
 import com.google.common.util.concurrent.SimpleTimeLimiter;
@@ -51,7 +71,12 @@ import guru.qas.martini.Mixologist;
 import guru.qas.martini.event.SuiteIdentifier;
 
 import guru.qas.martini.runtime.event.EventManager;
+import guru.qas.martini.standalone.io.DurationHistory;
+import guru.qas.martini.standalone.io.ResultRecords;
+import guru.qas.martini.spring.standalone.configuration.ExecutorServiceConfiguration;
+import guru.qas.martini.spring.standalone.configuration.FailureBudgetConfiguration;
 import guru.qas.martini.spring.standalone.configuration.ForkJoinPoolConfiguration;
+import guru.qas.martini.spring.standalone.configuration.LatencyRecorderConfiguration;
 import guru.qas.martini.spring.standalone.configuration.MartiniComparatorConfiguration;
 
 import static guru.qas.martini.standalone.harness.DefaultMartiniStandaloneEngineMessages.*;
@@ -69,9 +94,16 @@ public class DefaultMartiniStandaloneEngine
 	protected final TaskFactory taskFactory;
 	protected final EventManager eventManager;
 	protected final ForkJoinPool forkJoinPool;
+	protected final ExecutorService executorService;
 
 	protected ApplicationContext applicationContext;
 	protected LocLogger logger;
+	protected Shard shard;
+	protected Set<String> completed;
+	protected Set<String> failed;
+	protected LatencyRecorder latencyRecorder;
+	protected FailureBudget failureBudget;
+	protected final AtomicBoolean halted;
 
 	@Autowired
 	DefaultMartiniStandaloneEngine(
@@ -81,7 +113,8 @@ public class DefaultMartiniStandaloneEngine
 		@Qualifier(MartiniComparatorConfiguration.BEAN_NAME) Comparator<Martini> martiniComparator,
 		TaskFactory taskFactory,
 		EventManager eventManager,
-		@Qualifier(ForkJoinPoolConfiguration.BEAN_NAME) ForkJoinPool forkJoinPool
+		@Qualifier(ForkJoinPoolConfiguration.BEAN_NAME) ForkJoinPool forkJoinPool,
+		@Qualifier(ExecutorServiceConfiguration.BEAN_NAME) ExecutorService executorService
 	) {
 		this.options = options;
 		this.mixologist = mixologist;
@@ -90,6 +123,8 @@ public class DefaultMartiniStandaloneEngine
 		this.taskFactory = taskFactory;
 		this.eventManager = eventManager;
 		this.forkJoinPool = forkJoinPool;
+		this.executorService = executorService;
+		this.halted = new AtomicBoolean();
 	}
 
 	@Override
@@ -97,10 +132,23 @@ public class DefaultMartiniStandaloneEngine
 		this.applicationContext = applicationContext;
 	}
 
+	@Autowired(required = false)
+	public void setLatencyRecorder(@Qualifier(LatencyRecorderConfiguration.BEAN_NAME) LatencyRecorder recorder) {
+		this.latencyRecorder = recorder;
+	}
+
+	@Autowired(required = false)
+	public void setFailureBudget(@Qualifier(FailureBudgetConfiguration.BEAN_NAME) FailureBudget budget) {
+		this.failureBudget = budget;
+	}
+
 	@SuppressWarnings("RedundantThrows")
 	@Override
 	public void afterPropertiesSet() throws Exception {
 		setUpLogger();
+		setUpShard();
+		setUpResume();
+		setUpRerun();
 	}
 
 	protected void setUpLogger() {
@@ -110,6 +158,34 @@ public class DefaultMartiniStandaloneEngine
 		logger = loggerFactory.getLocLogger(implementation);
 	}
 
+	protected void setUpShard() throws IOException {
+		int index = options.getShardIndex();
+		int count = options.getShardCount();
+		if (index >= count) {
+			throw new MartiniException(INVALID_SHARD, index, count);
+		}
+
+		List<File> files = options.getShardBalanceFiles();
+		DurationHistory history = files.isEmpty() ? null : DurationHistory.load(files);
+		shard = new Shard(index, count, history);
+	}
+
+	protected void setUpResume() throws IOException {
+		completed = new HashSet<>();
+		File file = options.getResumeFrom().orElse(null);
+		if (null != file && file.exists()) {
+			getStatuses(file).forEach((id, status) -> {
+				if (null != status && !ScenarioSkippedEvent.SKIPPED.equals(status)) {
+					completed.add(id);
+				}
+			});
+			logger.info("{} lists {} completed Martinis", file, completed.size());
+		}
+		else if (null != file) {
+			logger.info("{} does not exist; nothing to resume", file);
+		}
+	}
+
 	@Override
 	public void executeSuite() {
 		eventManager.publishBeforeSuite(this, suiteIdentifier);
@@ -143,13 +219,87 @@ public class DefaultMartiniStandaloneEngine
 		}
 	}
 
+	protected void setUpRerun() throws IOException {
+		File file = options.getRerunFailedFrom().orElse(null);
+		if (null != file) {
+			Map<String, String> statuses = getStatuses(file);
+			failed = statuses.entrySet().stream()
+				.filter(entry -> FailureBudget.FAILED.equals(entry.getValue()))
+				.map(Map.Entry::getKey)
+				.collect(Collectors.toSet());
+			logger.info("{} lists {} failed of {} Martinis", file, failed.size(), statuses.size());
+		}
+	}
+
+	protected Map<String, String> getStatuses(File file) throws IOException {
+		Map<String, String> statuses = new HashMap<>();
+		ResultRecords.forEach(file, record -> statuses.put(record.getId(), record.getStatus().orElse(null)));
+		return statuses;
+	}
+
 	protected Collection<Martini> getMartinis() {
 		String filter = options.getSpelFilter().orElse(null);
-		Collection<Martini> martinis = null == filter ? mixologist.getMartinis() : mixologist.getMartinis(filter);
+		Collection<Martini> martinis = null == filter ? mixologist.getMartinis() : evaluateFilter(filter);
 
 		assertMartinisFound(filter, martinis);
-		assertImplementation(martinis);
-		return martinis;
+
+		List<Martini> sharded = shard.select(getRerun(martinis));
+		if (1 < shard.getCount()) {
+			logger.info("{} selected {} of {} Martinis{}",
+				shard, sharded.size(), martinis.size(), shard.isBalanced() ? " by historical duration" : "");
+		}
+
+		List<Martini> resumed = resume(sharded);
+		assertImplementation(resumed);
+		return resumed;
+	}
+
+	protected Collection<Martini> getRerun(Collection<Martini> martinis) {
+		Collection<Martini> rerun = martinis;
+		if (null != failed) {
+			rerun = martinis.stream().filter(martini -> failed.contains(martini.getId())).collect(Collectors.toList());
+			logger.info("rerunning {} previously failed Martinis", rerun.size());
+		}
+		return rerun;
+	}
+
+	protected List<Martini> resume(List<Martini> martinis) {
+		List<Martini> resumed = martinis;
+		if (!completed.isEmpty()) {
+			resumed = martinis.stream()
+				.filter(martini -> !completed.contains(martini.getId()))
+				.collect(Collectors.toList());
+			logger.info("resuming {} Martinis; {} already completed", resumed.size(), martinis.size() - resumed.size());
+		}
+		return resumed;
+	}
+
+	protected Collection<Martini> evaluateFilter(String filter) {
+		SpelCompilerMode compilerMode = options.getSpelCompilerMode().orElse(null);
+		return null == compilerMode ? mixologist.getMartinis(filter) : evaluateFilter(filter, compilerMode);
+	}
+
+	protected Collection<Martini> evaluateFilter(String filter, SpelCompilerMode compilerMode) {
+		try {
+			SpelMartiniFilter martiniFilter = new SpelMartiniFilter(
+				filter,
+				compilerMode,
+				applicationContext.getAutowireCapableBeanFactory(),
+				applicationContext.getBeansOfType(MethodResolver.class).values(),
+				applicationContext.getBeansOfType(PropertyAccessor.class).values());
+			List<Martini> selected = martiniFilter.select(mixologist.getMartinis(), forkJoinPool);
+			logger.info("{} filter selected {} Martinis", martiniFilter.isCompiled() ? "compiled" : "interpreted",
+				selected.size());
+			return selected;
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new MartiniException(e, EXECUTION_INTERRUPTED);
+		}
+		catch (ExecutionException | ExpressionException e) {
+			logger.warn("unable to evaluate filter in parallel; delegating to Mixologist", e);
+			return mixologist.getMartinis(filter);
+		}
 	}
 
 	protected void assertMartinisFound(String filter, Collection<Martini> martinis) {
@@ -177,31 +327,162 @@ public class DefaultMartiniStandaloneEngine
 	}
 
 	protected Runnable getRunnable(Collection<Martini> martinis) {
+		boolean eventDriven = DispatchMode.EVENT == options.getDispatchMode() ||
+			ExecutorType.VIRTUAL == options.getExecutorType();
+		return eventDriven ? getEventDrivenRunnable(martinis) : getPollingRunnable(martinis);
+	}
+
+	protected Runnable getPollingRunnable(Collection<Martini> martinis) {
 
-		Iterator<Optional<Martini>> i = getMartiniIterator(martinis);
+		MartiniIterator i = getMartiniIterator(martinis);
+		int slots = getConcurrencyLimit();
 
 		return () -> {
-			while (i.hasNext()) {
-				if (forkJoinPool.hasQueuedSubmissions()) {
+			AtomicInteger inFlight = new AtomicInteger();
+			do {
+				while (i.hasNext() && !isDispatchHalted(i)) {
+					if (forkJoinPool.hasQueuedSubmissions() || inFlight.get() >= slots) {
+						sleep();
+					}
+					else {
+						Runnable task = taskFactory.getTask(i);
+						inFlight.incrementAndGet();
+						forkJoinPool.submit(() -> {
+							try {
+								task.run();
+							}
+							finally {
+								inFlight.decrementAndGet();
+							}
+						});
+					}
+				}
+
+				while (!forkJoinPool.isQuiescent()) {
 					sleep();
 				}
-				else {
-					Runnable task = taskFactory.getTask(i);
-					forkJoinPool.submit(task);
+			}
+			while (i.hasNext() && !isDispatchHalted(i));
+			logDispatchSummary(i);
+		};
+	}
+
+	protected Runnable getEventDrivenRunnable(Collection<Martini> martinis) {
+		MartiniIterator i = getMartiniIterator(martinis);
+		int slots = getConcurrencyLimit();
+
+		return () -> {
+			BlockingQueue<Martini> completions = new LinkedBlockingQueue<>();
+			AtomicInteger inFlight = new AtomicInteger();
+
+			do {
+				while (i.hasNext() && !isDispatchHalted(i)) {
+					Martini next = inFlight.get() < slots ? i.next().orElse(null) : null;
+					if (null != next) {
+						inFlight.incrementAndGet();
+						submit(i, next, completions, inFlight);
+					}
+					else if (0 == inFlight.get() && !i.isDeferred()) {
+						throw new MartiniException(DISPATCH_STALLED);
+					}
+					else {
+						awaitCompletions(completions);
+					}
+				}
+
+				while (0 < inFlight.get() && !i.hasNext()) {
+					awaitCompletions(completions);
 				}
 			}
+			while (i.hasNext() && !isDispatchHalted(i));
 
-			while (!forkJoinPool.isQuiescent()) {
-				sleep();
+			while (0 < inFlight.get()) {
+				awaitCompletions(completions);
 			}
+			logDispatchSummary(i);
 		};
 	}
 
-	protected Iterator<Optional<Martini>> getMartiniIterator(Collection<Martini> martinis) {
+	protected boolean isDispatchHalted(MartiniIterator i) {
+		boolean exhausted = null != failureBudget && failureBudget.isExhausted();
+		if (exhausted && halted.compareAndSet(false, true)) {
+			halt(i, failureBudget.getReason().orElse("failure budget exhausted"));
+		}
+		return exhausted;
+	}
+
+	protected void halt(MartiniIterator i, String reason) {
+		List<Martini> skipped = i.drain();
+		logger.warn("halting dispatch: {}; skipping {} Martinis", reason, skipped.size());
+		skipped.forEach(martini -> applicationContext.publishEvent(new ScenarioSkippedEvent(this, martini, reason)));
+		if (options.isCancelOnHalt()) {
+			taskFactory.cancel();
+		}
+	}
+
+	protected int getConcurrencyLimit() {
+		int limit = options.getMaxConcurrency();
+		return ExecutorType.VIRTUAL == options.getExecutorType() ? limit : Math.min(limit, forkJoinPool.getParallelism());
+	}
+
+	protected void submit(
+		MartiniIterator i,
+		Martini martini,
+		BlockingQueue<Martini> completions,
+		AtomicInteger inFlight
+	) {
+		Runnable task = taskFactory.getTask(i.claimed(martini));
+		executorService.submit(() -> {
+			Runnable current = task;
+			Martini completed = martini;
+			while (null != current) {
+				Martini next = null;
+				try {
+					current.run();
+					next = isChained(i) ? i.next().orElse(null) : null;
+				}
+				finally {
+					if (null == next) {
+						inFlight.decrementAndGet();
+					}
+					completions.add(completed);
+				}
+				completed = next;
+				current = null == next ? null : taskFactory.getTask(i.claimed(next));
+			}
+		});
+	}
+
+	protected boolean isChained(MartiniIterator i) {
+		return options.isAffinity() && !isDispatchHalted(i);
+	}
+
+	protected void awaitCompletions(BlockingQueue<Martini> completions) {
+		try {
+			Martini next = completions.poll(options.getMartiniGatePollTimeoutMs(), TimeUnit.MILLISECONDS);
+			if (null != next) {
+				completions.clear();
+			}
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new MartiniException(e, EXECUTION_INTERRUPTED);
+		}
+	}
+
+	protected void logDispatchSummary(MartiniIterator i) {
+		logger.info("dispatched {} Martinis; {} retries, {} empty polls, {} gate monitor timeouts",
+			i.getDispatchedCount(), i.getRetryCount(), i.getEmptyPollCount(), i.getLockTimeoutCount());
+	}
+
+	protected MartiniIterator getMartiniIterator(Collection<Martini> martinis) {
 		long timeout = options.getMartiniGatePollTimeoutMs();
-		Iterator<Optional<Martini>> i = MartiniIterator.builder()
+		MartiniIterator i = MartiniIterator.builder()
 			.setPollTimeoutMs(timeout)
+			.setMaxAttempts(options.getMaxAttempts())
+			.setAffinity(getAffinity())
 			.setComparator(martiniComparator)
+			.setLatencyRecorder(latencyRecorder)
 			.setMartinis(martinis)
 			.build();
 
@@ -210,6 +491,35 @@ public class DefaultMartiniStandaloneEngine
 		return i;
 	}
 
+	protected Function<Martini, ?> getAffinity() {
+		String expression = options.getAffinityExpression().orElse(null);
+		Function<Martini, ?> affinity = null;
+		if (null != expression) {
+			affinity = getAffinity(expression);
+		}
+		else if (options.isAffinity()) {
+			affinity = martini -> martini.getRecipe().getFeatureWrapper();
+		}
+		return affinity;
+	}
+
+	protected Function<Martini, ?> getAffinity(String expression) {
+		Expression parsed = new SpelExpressionParser().parseExpression(expression);
+		StandardEvaluationContext context = new StandardEvaluationContext();
+		context.setBeanResolver(new BeanFactoryResolver(applicationContext.getAutowireCapableBeanFactory()));
+		applicationContext.getBeansOfType(MethodResolver.class).values().forEach(context::addMethodResolver);
+		applicationContext.getBeansOfType(PropertyAccessor.class).values().forEach(context::addPropertyAccessor);
+		return martini -> {
+			try {
+				return parsed.getValue(context, martini);
+			}
+			catch (ExpressionException e) {
+				logger.warn("unable to evaluate affinity of {}", martini.getId(), e);
+				return null;
+			}
+		};
+	}
+
 	protected void sleep() {
 		try {
 			Thread.sleep(options.getJobPoolPollIntervalMs());
@@ -28,4 +28,11 @@ public enum DefaultMartiniStandaloneEngineMessages {
 	UNIMPLEMENTED_STEPS,
 	EXECUTION_INTERRUPTED,
 	EXECUTION_TIMED_OUT,
+	DISPATCH_STALLED,
+	INVALID_SHARD,
+	COORDINATOR_BIND_FAILED,
+	COORDINATOR_UNAVAILABLE,
+	UNKNOWN_MARTINI,
+	WORKER_START_FAILED,
+	WORKERS_EXITED,
 }
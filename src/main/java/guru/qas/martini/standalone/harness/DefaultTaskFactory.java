@@ -18,11 +18,17 @@ package guru.qas.martini.standalone.harness;
 
 import java.util.ArrayList;
 import java.util.Collection;
-
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Optional;
 
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 import javax.annotation.Nonnull;
 
@@ -31,6 +37,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Configurable;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
@@ -42,6 +49,9 @@ import guru.qas.martini.gate.MartiniGate;
 import guru.qas.martini.result.MartiniResult;
 import guru.qas.martini.runtime.event.EventManager;
 import guru.qas.martini.runtime.harness.MartiniCallable;
+import guru.qas.martini.spring.standalone.configuration.FailureBudgetConfiguration;
+import guru.qas.martini.spring.standalone.configuration.LatencyRecorderConfiguration;
+import guru.qas.martini.spring.standalone.configuration.ScenarioWatchdogConfiguration;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
@@ -53,11 +63,19 @@ public class DefaultTaskFactory implements TaskFactory, ApplicationContextAware
 	protected final Logger logger;
 
 	protected ApplicationContext applicationContext;
+	protected LatencyRecorder latencyRecorder;
+	protected ScenarioWatchdog scenarioWatchdog;
+	protected FailureBudget failureBudget;
+	protected List<WorkerLifecycleListener> lifecycleListeners;
+	protected final ConcurrentMap<Martini, Thread> running;
+	protected volatile boolean cancelled;
 
 	@Autowired
 	DefaultTaskFactory(EventManager eventManager) {
 		this.eventManager = eventManager;
 		logger = LoggerFactory.getLogger(this.getClass());
+		running = new ConcurrentHashMap<>();
+		lifecycleListeners = Collections.emptyList();
 	}
 
 	@Override
@@ -65,33 +83,175 @@ public class DefaultTaskFactory implements TaskFactory, ApplicationContextAware
 		this.applicationContext = applicationContext;
 	}
 
+	@Autowired(required = false)
+	public void setLatencyRecorder(@Qualifier(LatencyRecorderConfiguration.BEAN_NAME) LatencyRecorder recorder) {
+		this.latencyRecorder = recorder;
+	}
+
+	@Autowired(required = false)
+	public void setScenarioWatchdog(@Qualifier(ScenarioWatchdogConfiguration.BEAN_NAME) ScenarioWatchdog watchdog) {
+		this.scenarioWatchdog = watchdog;
+	}
+
+	@Autowired(required = false)
+	public void setFailureBudget(@Qualifier(FailureBudgetConfiguration.BEAN_NAME) FailureBudget budget) {
+		this.failureBudget = budget;
+	}
+
+	@Autowired(required = false)
+	public void setWorkerLifecycleListeners(List<WorkerLifecycleListener> listeners) {
+		this.lifecycleListeners = null == listeners ? Collections.emptyList() : new ArrayList<>(listeners);
+	}
+
 	@Override
 	public Runnable getTask(Iterator<Optional<Martini>> i) {
 		checkNotNull(i, "null Iterator");
+		Consumer<Martini> releaser = getReleaser(i);
+		Consumer<Martini> expirer = getExpirer(i);
+		Predicate<Martini> retrier = getRetrier(i);
+		long created = System.nanoTime();
 		return () -> {
+			if (null != latencyRecorder) {
+				latencyRecorder.recordQueueWait(System.nanoTime() - created);
+			}
 			Martini next = i.hasNext() ? i.next().orElse(null) : null;
 			if (null != next) {
-				execute(next);
+				MartiniResult result = execute(next, releaser, expirer);
+				if (isRetryable(result) && retrier.test(next)) {
+					logger.info("{} failed; queued for another attempt", next.getId());
+				}
+				else {
+					recordResult(result);
+				}
 			}
 		};
 	}
 
+	protected Predicate<Martini> getRetrier(Iterator<Optional<Martini>> i) {
+		return i instanceof GatedIterator ? ((GatedIterator) i)::retry : martini -> false;
+	}
+
+	protected boolean isRetryable(MartiniResult result) {
+		Object status = null == result ? null : result.getStatus();
+		return !cancelled && null != status && FailureBudget.FAILED.equals(status.toString());
+	}
+
+	protected void recordResult(MartiniResult result) {
+		if (null != result && null != failureBudget && failureBudget.isEnabled()) {
+			Object status = result.getStatus();
+			failureBudget.record(null == status ? null : status.toString());
+		}
+	}
+
+	protected Consumer<Martini> getReleaser(Iterator<Optional<Martini>> i) {
+		return i instanceof GatedIterator ? ((GatedIterator) i)::release : this::releasePermits;
+	}
+
+	protected Consumer<Martini> getExpirer(Iterator<Optional<Martini>> i) {
+		return i instanceof GatedIterator ? ((GatedIterator) i)::expire : this::releasePermits;
+	}
+
 	protected void execute(Martini martini) {
+		execute(martini, this::releasePermits, this::releasePermits);
+	}
+
+	protected MartiniResult execute(Martini martini, Consumer<Martini> releaser, Consumer<Martini> expirer) {
+		AtomicBoolean released = new AtomicBoolean();
+		Runnable release = getOnceReleaser(martini, releaser, released);
+		ScenarioWatchdog.Watch watch = null == scenarioWatchdog ?
+			null : scenarioWatchdog.watch(martini, getOnceReleaser(martini, expirer, released));
+		running.put(martini, Thread.currentThread());
+		MartiniResult result = null;
 		try {
-			Callable<MartiniResult> callable = new MartiniCallable(martini);
-			AutowireCapableBeanFactory beanFactory = applicationContext.getAutowireCapableBeanFactory();
-			beanFactory.autowireBean(callable);
-			beanFactory.initializeBean(callable, callable.getClass().getName());
-			callable.call();
+			beforeScenario(martini);
+			Callable<MartiniResult> callable = getCallable(martini);
+			result = call(callable);
+			return null != watch && watch.isExpired() ? null : result;
 		}
 		catch (Exception e) {
+			if (cancelled || null != watch && watch.isExpired()) {
+				logger.debug("{} abandoned after interruption", martini.getId(), e);
+				return null;
+			}
 			throw new RuntimeException(e);
 		}
 		finally {
-			releasePermits(martini);
+			afterScenario(martini, result);
+			running.remove(martini);
+			if (cancelled) {
+				Thread.interrupted();
+			}
+			if (null != watch) {
+				watch.cancel();
+			}
+			release.run();
 		}
 	}
 
+	protected void beforeScenario(Martini martini) {
+		for (WorkerLifecycleListener listener : lifecycleListeners) {
+			try {
+				listener.beforeScenario(martini);
+			}
+			catch (RuntimeException e) {
+				logger.warn("{} failed before {}", listener, martini.getId(), e);
+			}
+		}
+	}
+
+	protected void afterScenario(Martini martini, MartiniResult result) {
+		for (WorkerLifecycleListener listener : lifecycleListeners) {
+			try {
+				listener.afterScenario(martini, result);
+			}
+			catch (RuntimeException e) {
+				logger.warn("{} failed after {}", listener, martini.getId(), e);
+			}
+		}
+	}
+
+	@Override
+	public void cancel() {
+		cancelled = true;
+		running.keySet().forEach(martini -> running.computeIfPresent(martini, (key, thread) -> {
+			logger.info("interrupting {} on {}", key.getId(), thread.getName());
+			thread.interrupt();
+			return thread;
+		}));
+	}
+
+	protected Runnable getOnceReleaser(Martini martini, Consumer<Martini> releaser, AtomicBoolean released) {
+		return () -> {
+			if (released.compareAndSet(false, true)) {
+				releaser.accept(martini);
+			}
+		};
+	}
+
+	protected MartiniResult call(Callable<MartiniResult> callable) throws Exception {
+		long start = System.nanoTime();
+		try {
+			return callable.call();
+		}
+		finally {
+			if (null != latencyRecorder) {
+				latencyRecorder.recordExecution(System.nanoTime() - start);
+			}
+		}
+	}
+
+	protected Callable<MartiniResult> getCallable(Martini martini) {
+		Callable<MartiniResult> callable = newCallable(martini);
+		AutowireCapableBeanFactory beanFactory = applicationContext.getAutowireCapableBeanFactory();
+		beanFactory.autowireBean(callable);
+		beanFactory.initializeBean(callable, callable.getClass().getName());
+		return callable;
+	}
+
+	protected Callable<MartiniResult> newCallable(Martini martini) {
+		return new MartiniCallable(martini);
+	}
+
 	protected void releasePermits(Martini martini) {
 		Collection<MartiniGate> gates = martini.getGates();
 		ArrayList<MartiniGate> gateList = Lists.newArrayList(gates);
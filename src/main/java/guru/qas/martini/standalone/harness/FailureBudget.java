@@ -0,0 +1,98 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package guru.qas.martini.standalone.harness;
+
+import java.util.Optional;
+
+import javax.annotation.Nullable;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+@SuppressWarnings("WeakerAccess")
+public class FailureBudget {
+
+	public static final String FAILED = "FAILED";
+
+	protected final Integer maxFailures;
+	protected final Double maxFailureRate;
+	protected final boolean[] window;
+
+	protected int windowIndex;
+	protected int windowCount;
+	protected int windowFailures;
+	protected int failures;
+	protected int recorded;
+	protected String reason;
+
+	public FailureBudget(@Nullable Integer maxFailures, @Nullable Double maxFailureRate, int windowSize) {
+		checkArgument(null == maxFailures || 0 < maxFailures, "illegal maximum failures %s", maxFailures);
+		checkArgument(null == maxFailureRate || 0 < maxFailureRate && maxFailureRate <= 1,
+			"illegal maximum failure rate %s", maxFailureRate);
+		checkArgument(0 < windowSize, "illegal failure rate window %s", windowSize);
+		this.maxFailures = maxFailures;
+		this.maxFailureRate = maxFailureRate;
+		this.window = new boolean[windowSize];
+	}
+
+	public boolean isEnabled() {
+		return null != maxFailures || null != maxFailureRate;
+	}
+
+	public void record(@Nullable String status) {
+		record(FAILED.equals(status));
+	}
+
+	public synchronized void record(boolean failed) {
+		recorded++;
+		failures += failed ? 1 : 0;
+
+		windowFailures -= windowCount == window.length && window[windowIndex] ? 1 : 0;
+		window[windowIndex] = failed;
+		windowFailures += failed ? 1 : 0;
+		windowIndex = (windowIndex + 1) % window.length;
+		windowCount = Math.min(window.length, windowCount + 1);
+
+		if (null == reason) {
+			reason = evaluate();
+		}
+	}
+
+	protected String evaluate() {
+		String evaluated = null;
+		if (null != maxFailures && failures >= maxFailures) {
+			evaluated = String.format("%s of %s scenarios failed; limit is %s", failures, recorded, maxFailures);
+		}
+		else if (null != maxFailureRate && windowCount == window.length &&
+			(double) windowFailures / window.length >= maxFailureRate) {
+			evaluated = String.format("%s of the last %s scenarios failed; limit is %.0f%%",
+				windowFailures, window.length, maxFailureRate * 100);
+		}
+		return evaluated;
+	}
+
+	public synchronized boolean isExhausted() {
+		return null != reason;
+	}
+
+	public synchronized Optional<String> getReason() {
+		return Optional.ofNullable(reason);
+	}
+
+	public synchronized int getFailureCount() {
+		return failures;
+	}
+}
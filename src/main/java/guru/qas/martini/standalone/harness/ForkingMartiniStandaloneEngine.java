@@ -0,0 +1,164 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package guru.qas.martini.standalone.harness;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Configurable;
+import org.springframework.beans.factory.annotation.Qualifier;
+
+import com.google.common.base.Joiner;
+
+import exception.MartiniException;
+import guru.qas.martini.Martini;
+import guru.qas.martini.Mixologist;
+import guru.qas.martini.event.SuiteIdentifier;
+import guru.qas.martini.runtime.event.EventManager;
+import guru.qas.martini.spring.standalone.configuration.ExecutorServiceConfiguration;
+import guru.qas.martini.spring.standalone.configuration.ForkJoinPoolConfiguration;
+import guru.qas.martini.spring.standalone.configuration.MartiniComparatorConfiguration;
+import guru.qas.martini.standalone.Main;
+
+import static guru.qas.martini.standalone.harness.DefaultMartiniStandaloneEngineMessages.*;
+import static guru.qas.martini.standalone.jcommander.CommandLineOptions.*;
+
+@SuppressWarnings("WeakerAccess")
+@Configurable
+public class ForkingMartiniStandaloneEngine extends CoordinatorMartiniStandaloneEngine {
+
+	protected final List<Process> workers;
+
+	@Autowired
+	ForkingMartiniStandaloneEngine(
+		Options options,
+		Mixologist mixologist,
+		SuiteIdentifier suiteIdentifier,
+		@Qualifier(MartiniComparatorConfiguration.BEAN_NAME) Comparator<Martini> martiniComparator,
+		TaskFactory taskFactory,
+		EventManager eventManager,
+		@Qualifier(ForkJoinPoolConfiguration.BEAN_NAME) ForkJoinPool forkJoinPool,
+		@Qualifier(ExecutorServiceConfiguration.BEAN_NAME) ExecutorService executorService
+	) {
+		super(options, mixologist, suiteIdentifier, martiniComparator, taskFactory, eventManager, forkJoinPool,
+			executorService);
+		workers = new ArrayList<>();
+	}
+
+	@Override
+	protected int getPort() {
+		return options.getCoordinatorPort().orElse(0);
+	}
+
+	@Override
+	protected void startWorkers(int port) {
+		int forkCount = options.getForkCount();
+		List<String> command = getWorkerCommand(port);
+		logger.info("starting {} worker JVMs: {}", forkCount, Joiner.on(' ').join(command));
+
+		for (int worker = 0; worker < forkCount; worker++) {
+			try {
+				Process process = new ProcessBuilder(command).inheritIO().start();
+				workers.add(process);
+			}
+			catch (IOException e) {
+				throw new MartiniException(e, WORKER_START_FAILED, command);
+			}
+		}
+	}
+
+	protected List<String> getWorkerCommand(int port) {
+		List<String> command = new ArrayList<>();
+		command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+		command.addAll(options.getForkJvmArgs());
+		command.add("-classpath");
+		command.add(System.getProperty("java.class.path"));
+		command.add(Main.class.getName());
+		command.add(PARAMETER_CONFIG_LOCATIONS);
+		command.add(Joiner.on(',').join(options.getSpringConfigurationLocations()));
+		command.add(PARAMETER_PULL_FROM);
+		command.add("127.0.0.1:" + port);
+		command.add(PARAMETER_COORDINATOR_CONNECT_TIMEOUT_SECONDS);
+		command.add(String.valueOf(options.getCoordinatorConnectTimeoutSeconds()));
+		command.add(PARAMETER_PARALLELISM);
+		command.add("1");
+		command.add(PARAMETER_FORWARD_RESULTS);
+		command.addAll(getForwardedArguments());
+		return command;
+	}
+
+	protected List<String> getForwardedArguments() {
+		List<String> arguments = new ArrayList<>();
+		if (options.isUnimplementedStepsFatal()) {
+			arguments.add(PARAMETER_UNIMPLEMENTED_STEPS_FATAL);
+		}
+		options.getTimeoutInMinutes().ifPresent(minutes -> add(arguments, PARAMETER_TIMEOUT_MINUTES, minutes));
+		options.getAwaitTerminationSeconds()
+			.ifPresent(seconds -> add(arguments, PARAMETER_AWAIT_TERMINATION_SECONDS, seconds));
+		options.getScenarioTimeoutSeconds()
+			.ifPresent(seconds -> add(arguments, PARAMETER_SCENARIO_TIMEOUT_SECONDS, seconds));
+		add(arguments, PARAMETER_SCENARIO_TIMEOUT_TAG, options.getScenarioTimeoutTag());
+		options.getSpelCompilerMode().ifPresent(mode -> add(arguments, PARAMETER_SPEL_COMPILER_MODE, mode));
+		add(arguments, PARAMETER_GATE_MONITOR_POLL_TIMEOUT_MS, options.getMartiniGatePollTimeoutMs());
+		add(arguments, PARAMETER_SUITE_IDENTIFIER_IMPL, options.getSuiteIdentifierImplementation().getName());
+		add(arguments, PARAMETER_TASK_FACTORY_IMPL, options.getTaskFactoryImplementation().getName());
+		add(arguments, PARAMETER_UNCAUGHT_EXCEPTION_HANDLER_IMPL,
+			options.getUncaughtExceptionHandlerImplementation().getName());
+		return arguments;
+	}
+
+	protected void add(List<String> arguments, String parameter, Object value) {
+		arguments.add(parameter);
+		arguments.add(String.valueOf(value));
+	}
+
+	@Override
+	protected void assertWorkersAvailable(int remaining) {
+		boolean available = workers.stream().anyMatch(Process::isAlive);
+		if (!available) {
+			throw new MartiniException(WORKERS_EXITED, workers.size(), remaining);
+		}
+	}
+
+	@Override
+	protected void stopWorkers() {
+		long timeout = options.getAwaitTerminationSeconds().orElse(60L);
+		for (Process worker : workers) {
+			try {
+				if (!worker.waitFor(timeout, TimeUnit.SECONDS)) {
+					logger.warn("worker JVM {} did not exit within {} seconds; destroying", worker.pid(), timeout);
+					worker.destroyForcibly();
+				}
+				else if (0 != worker.exitValue()) {
+					logger.warn("worker JVM {} exited with status {}", worker.pid(), worker.exitValue());
+				}
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				worker.destroyForcibly();
+			}
+		}
+		workers.clear();
+	}
+}
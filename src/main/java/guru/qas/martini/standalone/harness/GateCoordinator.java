@@ -0,0 +1,141 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package guru.qas.martini.standalone.harness;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import guru.qas.martini.Martini;
+import guru.qas.martini.gate.MartiniGate;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+@SuppressWarnings("WeakerAccess")
+public class GateCoordinator {
+
+	protected static final MartiniGate[] UNGATED = new MartiniGate[0];
+
+	protected final Map<MartiniGate, GateState> states;
+
+	public GateCoordinator(@Nonnull Collection<Martini> martinis) {
+		checkNotNull(martinis, "null Collection");
+		Set<MartiniGate> gates = new LinkedHashSet<>();
+		martinis.forEach(martini -> gates.addAll(martini.getGates()));
+
+		List<MartiniGate> ordered = new ArrayList<>(gates);
+		ordered.sort(Comparator.comparing(gate -> String.valueOf(gate.getName())));
+		states = new HashMap<>();
+		ordered.forEach(this::getState);
+	}
+
+	protected GateState getState(MartiniGate gate) {
+		return states.computeIfAbsent(gate, key -> new GateState(states.size(), Math.max(0, key.getPermits())));
+	}
+
+	@Nonnull
+	public MartiniGate[] getOrdered(@Nonnull Collection<MartiniGate> gates) {
+		checkNotNull(gates, "null Collection");
+		if (gates.isEmpty()) {
+			return UNGATED;
+		}
+		MartiniGate[] ordered = gates.toArray(new MartiniGate[0]);
+		Arrays.sort(ordered, Comparator.comparingInt(gate -> getState(gate).ordinal));
+		return ordered;
+	}
+
+	public int getAvailable(@Nonnull MartiniGate gate) {
+		GateState state = getState(gate);
+		return state.permits - state.held;
+	}
+
+	public boolean isHeld(@Nonnull MartiniGate gate) {
+		return 0 < getState(gate).held;
+	}
+
+	@Nullable
+	public MartiniGate acquire(@Nonnull MartiniGate[] gates) {
+		checkNotNull(gates, "null MartiniGate[]");
+		MartiniGate blocking = getUnavailable(gates);
+		return null == blocking ? enter(gates) : blocking;
+	}
+
+	protected MartiniGate getUnavailable(MartiniGate[] gates) {
+		int i = 0;
+		while (i < gates.length) {
+			MartiniGate gate = gates[i];
+			int demand = 1;
+			while (i + demand < gates.length && gate.equals(gates[i + demand])) {
+				demand++;
+			}
+			if (getAvailable(gate) < demand) {
+				return gate;
+			}
+			i += demand;
+		}
+		return null;
+	}
+
+	protected MartiniGate enter(MartiniGate[] gates) {
+		for (int i = 0; i < gates.length; i++) {
+			MartiniGate gate = gates[i];
+			if (gate.enter()) {
+				getState(gate).held++;
+			}
+			else {
+				release(gates, i);
+				return gate;
+			}
+		}
+		return null;
+	}
+
+	public void release(@Nonnull MartiniGate[] gates) {
+		checkNotNull(gates, "null MartiniGate[]");
+		release(gates, gates.length);
+	}
+
+	protected void release(MartiniGate[] gates, int count) {
+		for (int i = count - 1; i >= 0; i--) {
+			MartiniGate gate = gates[i];
+			gate.leave();
+			GateState state = getState(gate);
+			state.held = Math.max(0, state.held - 1);
+		}
+	}
+
+	protected static class GateState {
+
+		protected final int ordinal;
+		protected final int permits;
+		protected int held;
+
+		protected GateState(int ordinal, int permits) {
+			this.ordinal = ordinal;
+			this.permits = permits;
+		}
+	}
+}
@@ -0,0 +1,35 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package guru.qas.martini.standalone.harness;
+
+import java.util.Iterator;
+import java.util.Optional;
+
+import guru.qas.martini.Martini;
+
+public interface GatedIterator extends Iterator<Optional<Martini>> {
+
+	void release(Martini martini);
+
+	default void expire(Martini martini) {
+		release(martini);
+	}
+
+	default boolean retry(Martini martini) {
+		return false;
+	}
+}
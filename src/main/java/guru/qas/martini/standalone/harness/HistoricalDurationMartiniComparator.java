@@ -0,0 +1,62 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package guru.qas.martini.standalone.harness;
+
+import java.io.File;
+import java.util.Comparator;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import guru.qas.martini.Martini;
+import guru.qas.martini.standalone.io.DurationHistory;
+
+@SuppressWarnings("WeakerAccess")
+public class HistoricalDurationMartiniComparator implements Comparator<Martini>, InitializingBean {
+
+	protected static final Logger LOGGER = LoggerFactory.getLogger(HistoricalDurationMartiniComparator.class);
+
+	protected final Options options;
+	protected final Comparator<Martini> gateComparator;
+
+	protected DurationHistory history;
+
+	@Autowired
+	HistoricalDurationMartiniComparator(Options options) {
+		this.options = options;
+		this.gateComparator = new DefaultMartiniComparator();
+	}
+
+	@Override
+	public void afterPropertiesSet() throws Exception {
+		List<File> files = options.getDurationHistoryFiles();
+		history = DurationHistory.load(files);
+		LOGGER.info("loaded historical durations for {} Martinis from {}; defaulting others to {} ms",
+			history.size(), files, history.getDefaultDuration());
+	}
+
+	@Override
+	public int compare(Martini left, Martini right) {
+		long leftDuration = history.getDuration(left.getId());
+		long rightDuration = history.getDuration(right.getId());
+		int comparison = Long.compare(rightDuration, leftDuration);
+		return 0 == comparison ? gateComparator.compare(left, right) : comparison;
+	}
+}
@@ -0,0 +1,82 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package guru.qas.martini.standalone.harness;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.annotation.Nonnull;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+@SuppressWarnings("WeakerAccess")
+public class LatencyRecorder {
+
+	public static final String QUEUE_WAIT = "queue wait";
+	public static final String EXECUTION = "execution";
+	public static final String GATE_WAIT_PREFIX = "gate wait: ";
+
+	protected static final int SIGNIFICANT_DIGITS = 3;
+
+	protected final Recorder queueWait;
+	protected final Recorder execution;
+	protected final ConcurrentMap<String, Recorder> gateWaits;
+	protected final Map<String, Histogram> totals;
+
+	public LatencyRecorder() {
+		queueWait = new Recorder(SIGNIFICANT_DIGITS);
+		execution = new Recorder(SIGNIFICANT_DIGITS);
+		gateWaits = new ConcurrentHashMap<>();
+		totals = new LinkedHashMap<>();
+	}
+
+	public void recordQueueWait(long nanos) {
+		queueWait.recordValue(Math.max(0, nanos));
+	}
+
+	public void recordExecution(long nanos) {
+		execution.recordValue(Math.max(0, nanos));
+	}
+
+	public void recordGateWait(@Nonnull String gate, long nanos) {
+		checkNotNull(gate, "null String");
+		gateWaits.computeIfAbsent(gate, key -> new Recorder(SIGNIFICANT_DIGITS)).recordValue(Math.max(0, nanos));
+	}
+
+	@Nonnull
+	public synchronized Map<String, Histogram> getHistograms() {
+		accumulate(QUEUE_WAIT, queueWait);
+		new TreeMap<>(gateWaits).forEach((gate, recorder) -> accumulate(GATE_WAIT_PREFIX + gate, recorder));
+		accumulate(EXECUTION, execution);
+
+		Map<String, Histogram> snapshot = new LinkedHashMap<>();
+		totals.forEach((name, histogram) -> snapshot.put(name, histogram.copy()));
+		return snapshot;
+	}
+
+	protected void accumulate(String name, Recorder recorder) {
+		Histogram interval = recorder.getIntervalHistogram();
+		Histogram total = totals.computeIfAbsent(name, key -> new Histogram(SIGNIFICANT_DIGITS));
+		total.add(interval);
+	}
+}
@@ -17,15 +17,28 @@ limitations under the License.
 package guru.qas.martini.standalone.harness;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
-import java.util.Iterator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.Set;
+import java.util.WeakHashMap;
 import java.util.concurrent.Callable;
 
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Consumer;
+import java.util.function.Function;
 
 import org.springframework.beans.factory.annotation.Configurable;
 
@@ -38,32 +51,121 @@ import static com.google.common.base.Preconditions.*;
 
 @SuppressWarnings("WeakerAccess")
 @Configurable
-public class MartiniIterator implements Iterator<Optional<Martini>> {
+public class MartiniIterator implements GatedIterator {
 
 	protected final long pollTimeoutMs;
-	protected final List<Martini> martinis;
+	protected final int maxAttempts;
 	protected final Monitor monitor;
+	protected final PriorityQueue<Entry> ready;
+	protected final GateCoordinator gateCoordinator;
+	protected final Map<MartiniGate, Queue<Entry>> parked;
+	protected final Queue<Entry> deferred;
+	protected final AtomicInteger remaining;
+	protected final LongAdder dispatched;
+	protected final LongAdder emptyPolls;
+	protected final LongAdder lockTimeouts;
+	protected final LatencyRecorder latencyRecorder;
+	protected final Map<Martini, Integer> attempts;
+	protected final int size;
+	protected final Function<Martini, ?> affinity;
+	protected final Map<Object, PriorityQueue<Entry>> affine;
+	protected final Map<Thread, Object> lastKeys;
+	protected final Set<Martini> requeued;
+
+	protected int retries;
+	protected boolean drained;
+	protected long deferredAt;
 
 	protected MartiniIterator(
 		long pollTimeoutMs,
-		List<Martini> martinis
+		int maxAttempts,
+		List<Martini> martinis,
+		LatencyRecorder latencyRecorder,
+		Function<Martini, ?> affinity
 	) {
 		this.pollTimeoutMs = pollTimeoutMs;
-		this.martinis = martinis;
+		this.maxAttempts = maxAttempts;
+		this.attempts = new HashMap<>();
+		this.size = martinis.size();
+		this.latencyRecorder = latencyRecorder;
+		this.affinity = affinity;
+		this.affine = new HashMap<>();
+		this.lastKeys = new WeakHashMap<>();
+		this.requeued = new HashSet<>();
 		this.monitor = new Monitor();
+
+		this.gateCoordinator = new GateCoordinator(martinis);
+		List<Entry> entries = new ArrayList<>(martinis.size());
+		for (int rank = 0; rank < martinis.size(); rank++) {
+			entries.add(getEntry(martinis.get(rank), rank));
+		}
+		this.ready = new PriorityQueue<>(entries);
+		entries.forEach(entry -> {
+			entry.queued = true;
+			addAffine(entry);
+		});
+		this.parked = new HashMap<>();
+		this.deferred = new PriorityQueue<>();
+		this.remaining = new AtomicInteger(entries.size());
+		this.dispatched = new LongAdder();
+		this.emptyPolls = new LongAdder();
+		this.lockTimeouts = new LongAdder();
 	}
 
 	@Override
 	public boolean hasNext() {
-		Optional<Boolean> evaluation = doInLock(() -> !martinis.isEmpty());
-		return evaluation.isPresent() ? evaluation.get() : true;
+		return 0 < remaining.get();
+	}
+
+	public int getRemaining() {
+		return remaining.get();
+	}
+
+	public long getDispatchedCount() {
+		return dispatched.sum();
+	}
+
+	public long getEmptyPollCount() {
+		return emptyPolls.sum();
+	}
+
+	public long getLockTimeoutCount() {
+		return lockTimeouts.sum();
+	}
+
+	public boolean isDeferred() {
+		monitor.enter();
+		try {
+			return !deferred.isEmpty();
+		}
+		finally {
+			monitor.leave();
+		}
+	}
+
+	public int getRetryCount() {
+		monitor.enter();
+		try {
+			return retries;
+		}
+		finally {
+			monitor.leave();
+		}
 	}
 
 	protected <T> Optional<T> doInLock(Callable<T> callable) {
 		try {
 			T result = null;
 			if (monitor.enterInterruptibly(pollTimeoutMs, TimeUnit.MILLISECONDS)) {
-				result = callable.call();
+				try {
+					result = callable.call();
+				}
+				finally {
+					monitor.leave();
+				}
+			}
+			else {
+				lockTimeouts.increment();
 			}
 			return Optional.ofNullable(result);
 		}
@@ -73,24 +175,225 @@ public class MartiniIterator implements Iterator<Optional<Martini>> {
 		catch (Exception e) {
 			throw new RuntimeException(e);
 		}
-		finally {
-			monitor.leave();
+	}
+
+	protected Entry getEntry(Martini martini, int rank) {
+		Object key = null == affinity ? null : affinity.apply(martini);
+		return new Entry(martini, rank, gateCoordinator.getOrdered(martini.getGates()), key);
+	}
+
+	protected void enqueue(Entry entry) {
+		entry.queued = true;
+		ready.add(entry);
+		addAffine(entry);
+	}
+
+	protected void addAffine(Entry entry) {
+		if (null != entry.affinityKey) {
+			affine.computeIfAbsent(entry.affinityKey, key -> new PriorityQueue<>()).add(entry);
+		}
+	}
+
+	protected Entry poll(Queue<Entry> queue) {
+		Entry entry = queue.poll();
+		while (null != entry && !entry.queued) {
+			entry = queue.poll();
+		}
+		if (null != entry) {
+			entry.queued = false;
 		}
+		return entry;
 	}
 
 	@Override
 	public Optional<Martini> next() {
-		return doInLock(() -> {
-			Optional<Martini> optional = martinis.stream().filter(this::lock).findFirst();
-			optional.ifPresent(martinis::remove);
-			return optional.orElse(null);
+		Optional<Martini> next = doInLock(() -> {
+			restoreDeferred();
+			Thread worker = Thread.currentThread();
+			Object lastKey = null == affinity ? null : lastKeys.get(worker);
+			Queue<Entry> preferred = null == lastKey ? null : affine.get(lastKey);
+			Entry unlocked = null == preferred ? null : lock(preferred);
+			unlocked = null == unlocked ? lock(ready) : unlocked;
+			if (null != unlocked && null != affinity) {
+				lastKeys.put(worker, unlocked.affinityKey);
+			}
+			return null == unlocked ? null : unlocked.martini;
 		});
+
+		if (next.isPresent()) {
+			remaining.decrementAndGet();
+			dispatched.increment();
+		}
+		else {
+			emptyPolls.increment();
+		}
+		return next;
+	}
+
+	protected Entry lock(Queue<Entry> queue) {
+		Entry unlocked = null;
+		while (null == unlocked && !queue.isEmpty()) {
+			Entry entry = poll(queue);
+			if (null != entry) {
+				MartiniGate blocking = gateCoordinator.acquire(entry.gates);
+				if (null == blocking) {
+					recordGateWait(entry);
+					unlocked = entry;
+				}
+				else if (gateCoordinator.isHeld(blocking)) {
+					park(blocking, entry);
+				}
+				else {
+					defer(blocking, entry);
+				}
+			}
+		}
+		return unlocked;
+	}
+
+	protected void park(MartiniGate blocking, Entry entry) {
+		block(blocking, entry);
+		parked.computeIfAbsent(blocking, key -> new PriorityQueue<>()).add(entry);
+		new LinkedHashSet<>(Arrays.asList(entry.gates)).stream()
+			.filter(gate -> !gate.equals(blocking))
+			.forEach(this::unpark);
+	}
+
+	protected void assign(Martini martini) {
+		if (null != affinity) {
+			monitor.enter();
+			try {
+				lastKeys.put(Thread.currentThread(), affinity.apply(martini));
+			}
+			finally {
+				monitor.leave();
+			}
+		}
+	}
+
+	protected void block(MartiniGate blocking, Entry entry) {
+		if (null == entry.blocking && null != latencyRecorder) {
+			entry.parkedAt = System.nanoTime();
+		}
+		entry.blocking = blocking;
+	}
+
+	protected void defer(MartiniGate blocking, Entry entry) {
+		block(blocking, entry);
+		deferredAt = deferred.isEmpty() ? System.nanoTime() : deferredAt;
+		deferred.add(entry);
+		new LinkedHashSet<>(Arrays.asList(entry.gates)).forEach(this::unpark);
+	}
+
+	protected void restoreDeferred() {
+		if (!deferred.isEmpty() && System.nanoTime() - deferredAt >= TimeUnit.MILLISECONDS.toNanos(pollTimeoutMs)) {
+			List<Entry> restored = new ArrayList<>(deferred);
+			deferred.clear();
+			restored.forEach(this::enqueue);
+		}
+	}
+
+	@Override
+	public void release(Martini martini) {
+		checkNotNull(martini, "null Martini");
+		monitor.enter();
+		try {
+			MartiniGate[] gates = gateCoordinator.getOrdered(martini.getGates());
+			gateCoordinator.release(gates);
+			new LinkedHashSet<>(Arrays.asList(gates)).forEach(this::unpark);
+		}
+		finally {
+			monitor.leave();
+		}
+	}
+
+	@Override
+	public boolean retry(Martini martini) {
+		checkNotNull(martini, "null Martini");
+		monitor.enter();
+		try {
+			int attempt = attempts.getOrDefault(martini, 1) + 1;
+			boolean accepted = !drained && attempt <= maxAttempts;
+			if (accepted) {
+				attempts.put(martini, attempt);
+				int rank = size * (attempt - 1) + retries++;
+				enqueue(getEntry(martini, rank));
+				remaining.incrementAndGet();
+			}
+			return accepted;
+		}
+		finally {
+			monitor.leave();
+		}
+	}
+
+	public boolean requeue(Martini martini) {
+		checkNotNull(martini, "null Martini");
+		monitor.enter();
+		try {
+			boolean accepted = !drained && requeued.add(martini);
+			if (accepted) {
+				enqueue(getEntry(martini, Integer.MIN_VALUE + requeued.size()));
+				remaining.incrementAndGet();
+			}
+			return accepted;
+		}
+		finally {
+			monitor.leave();
+		}
+	}
+
+	protected void unpark(MartiniGate gate) {
+		Queue<Entry> entries = parked.get(gate);
+		if (null != entries) {
+			List<Entry> woken = new ArrayList<>();
+			for (int available = gateCoordinator.getAvailable(gate); 0 < available && !entries.isEmpty(); available--) {
+				woken.add(entries.poll());
+			}
+			if (entries.isEmpty()) {
+				parked.remove(gate);
+			}
+			woken.forEach(this::enqueue);
+		}
+	}
+
+	protected void recordGateWait(Entry entry) {
+		if (null != latencyRecorder && 0 < entry.gates.length) {
+			long nanos = null == entry.blocking ? 0 : System.nanoTime() - entry.parkedAt;
+			new LinkedHashSet<>(Arrays.asList(entry.gates)).forEach(gate -> latencyRecorder.recordGateWait(
+				String.valueOf(gate.getName()), gate.equals(entry.blocking) ? nanos : 0));
+		}
+	}
+
+	public List<Martini> drain() {
+		monitor.enter();
+		try {
+			Set<Entry> entries = Collections.newSetFromMap(new IdentityHashMap<>());
+			ready.stream().filter(entry -> entry.queued).forEach(entries::add);
+			parked.values().forEach(entries::addAll);
+			entries.addAll(deferred);
+			ready.clear();
+			affine.clear();
+			parked.clear();
+			deferred.clear();
+			drained = true;
+			remaining.addAndGet(-entries.size());
+
+			List<Martini> drained = new ArrayList<>(entries.size());
+			entries.stream().sorted().forEach(entry -> {
+				entry.queued = false;
+				drained.add(entry.martini);
+			});
+			return drained;
+		}
+		finally {
+			monitor.leave();
+		}
 	}
 
-	protected boolean lock(Martini martini) {
-		Optional<MartiniGate> optional = martini.getGates().stream().filter(gate -> !gate.enter()).findFirst();
-		optional.ifPresent(unentered -> martini.getGates().forEach(MartiniGate::leave));
-		return !optional.isPresent();
+	public GatedIterator claimed(Martini martini) {
+		checkNotNull(martini, "null Martini");
+		return new ClaimedIterator(martini);
 	}
 
 	@Override
@@ -107,14 +410,73 @@ public class MartiniIterator implements Iterator<Optional<Martini>> {
 		return new Builder();
 	}
 
+	protected static class Entry implements Comparable<Entry> {
+
+		protected final Martini martini;
+		protected final int rank;
+		protected final MartiniGate[] gates;
+		protected final Object affinityKey;
+		protected long parkedAt;
+		protected MartiniGate blocking;
+		protected boolean queued;
+
+		protected Entry(Martini martini, int rank, MartiniGate[] gates, Object affinityKey) {
+			this.martini = martini;
+			this.rank = rank;
+			this.gates = gates;
+			this.affinityKey = affinityKey;
+		}
+
+		@Override
+		public int compareTo(Entry other) {
+			return Integer.compare(rank, other.rank);
+		}
+	}
+
+	protected class ClaimedIterator implements GatedIterator {
+
+		protected Martini martini;
+
+		protected ClaimedIterator(Martini martini) {
+			this.martini = martini;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return null != martini;
+		}
+
+		@Override
+		public Optional<Martini> next() {
+			Optional<Martini> next = Optional.ofNullable(martini);
+			next.ifPresent(MartiniIterator.this::assign);
+			martini = null;
+			return next;
+		}
+
+		@Override
+		public void release(Martini martini) {
+			MartiniIterator.this.release(martini);
+		}
+
+		@Override
+		public boolean retry(Martini martini) {
+			return MartiniIterator.this.retry(martini);
+		}
+	}
+
 	public static class Builder {
 
 		protected long pollTimeoutMs;
+		protected int maxAttempts;
 		protected final List<Martini> martinis;
 		protected Comparator<Martini> comparator;
+		protected LatencyRecorder latencyRecorder;
+		protected Function<Martini, ?> affinity;
 
 		protected Builder() {
 			pollTimeoutMs = 500;
+			maxAttempts = 1;
 			martinis = new ArrayList<>();
 		}
 
@@ -123,6 +485,11 @@ public class MartiniIterator implements Iterator<Optional<Martini>> {
 			return this;
 		}
 
+		public Builder setMaxAttempts(int i) {
+			this.maxAttempts = i;
+			return this;
+		}
+
 		public Builder setMartinis(Collection<Martini> martinis) {
 			this.martinis.clear();
 			if (null != martinis) {
@@ -137,13 +504,36 @@ public class MartiniIterator implements Iterator<Optional<Martini>> {
 			return this;
 		}
 
+		public Builder setLatencyRecorder(LatencyRecorder latencyRecorder) {
+			this.latencyRecorder = latencyRecorder;
+			return this;
+		}
+
+		public Builder setAffinity(Function<Martini, ?> affinity) {
+			this.affinity = affinity;
+			return this;
+		}
+
 		public MartiniIterator build() {
 			checkState(null != comparator, "Comparator not set");
 			checkArgument(pollTimeoutMs > 0,
 				"illegal poll timeout %s; must be greater than zero milliseconds", pollTimeoutMs);
+			checkArgument(maxAttempts > 0, "illegal maximum attempts %s; must be greater than zero", maxAttempts);
 
-			martinis.sort(comparator);
-			return new MartiniIterator(pollTimeoutMs, martinis);
+			sort();
+			return new MartiniIterator(pollTimeoutMs, maxAttempts, martinis, latencyRecorder, affinity);
+		}
+
+		protected void sort() {
+			if (DefaultMartiniComparator.class == comparator.getClass()) {
+				DefaultMartiniComparator keyed = (DefaultMartiniComparator) comparator;
+				Map<Martini, Long> keys = new IdentityHashMap<>(martinis.size());
+				martinis.forEach(martini -> keys.put(martini, keyed.getSortKey(martini)));
+				martinis.sort(Comparator.comparingLong(keys::get));
+			}
+			else {
+				martinis.sort(comparator);
+			}
 		}
 	}
 }
@@ -18,12 +18,18 @@ package guru.qas.martini.standalone.harness;
 
 import java.io.File;
 import java.util.Comparator;
+import java.util.List;
 import java.util.Optional;
 
 import javax.annotation.Nonnull;
 
+import org.springframework.expression.spel.SpelCompilerMode;
+
+import com.google.common.net.HostAndPort;
+
 import guru.qas.martini.Martini;
 import guru.qas.martini.event.SuiteIdentifier;
+import guru.qas.martini.standalone.io.Compression;
 
 public interface Options {
 
@@ -34,21 +40,99 @@ public interface Options {
 
 	Optional<Long> getTimeoutInMinutes();
 
+	Optional<Long> getScenarioTimeoutSeconds();
+
+	@Nonnull
+	String getScenarioTimeoutTag();
+
+	Optional<Integer> getMaxFailures();
+
+	boolean isFailFast();
+
+	Optional<Double> getMaxFailureRate();
+
+	int getFailureRateWindow();
+
+	boolean isCancelOnHalt();
+
+	int getMaxAttempts();
+
+	boolean isAffinity();
+
+	Optional<String> getAffinityExpression();
+
 	Optional<String> getSpelFilter();
 
+	Optional<SpelCompilerMode> getSpelCompilerMode();
+
+	int getShardIndex();
+
+	int getShardCount();
+
+	@Nonnull
+	List<File> getShardBalanceFiles();
+
 	long getJobPoolPollIntervalMs();
 
+	@Nonnull
+	DispatchMode getDispatchMode();
+
 	Optional<File> getJsonOutputFile();
 
 	int getParallelism();
 
+	@Nonnull
+	ExecutorType getExecutorType();
+
+	int getMaxConcurrency();
+
 	Optional<Long> getAwaitTerminationSeconds();
 
 	boolean isJsonOutputFileOverwrite();
 
+	Optional<File> getBinaryOutputFile();
+
+	Optional<File> getLatencyOutputFile();
+
+	Optional<File> getJournalFile();
+
+	int getJournalSyncInterval();
+
+	Optional<File> getResumeFrom();
+
+	Optional<File> getRerunFailedFrom();
+
+	boolean isJsonOutputCompact();
+
+	Optional<Compression> getJsonCompression();
+
+	boolean isJsonOutputAsync();
+
+	int getJsonBufferCapacity();
+
+	int getJsonBatchSize();
+
+	long getJsonFlushIntervalMs();
+
 	@Nonnull
 	Class<? extends Comparator<Martini>> getMartiniComparatorImplementation();
 
+	@Nonnull
+	List<File> getDurationHistoryFiles();
+
+	Optional<Integer> getCoordinatorPort();
+
+	Optional<HostAndPort> getPullFrom();
+
+	long getCoordinatorConnectTimeoutSeconds();
+
+	int getForkCount();
+
+	@Nonnull
+	List<String> getForkJvmArgs();
+
+	boolean isForwardResults();
+
 	@Nonnull
 	Class<? extends MartiniStandaloneEngine> getEngineImplementation();
 
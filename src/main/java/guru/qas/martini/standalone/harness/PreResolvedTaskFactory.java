@@ -0,0 +1,181 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package guru.qas.martini.standalone.harness;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+import org.springframework.beans.factory.Aware;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Configurable;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.beans.factory.support.AbstractBeanFactory;
+import org.springframework.core.ResolvableType;
+import org.springframework.util.ReflectionUtils;
+
+import com.google.common.collect.ImmutableSet;
+
+import guru.qas.martini.Martini;
+import guru.qas.martini.result.MartiniResult;
+import guru.qas.martini.runtime.event.EventManager;
+
+@SuppressWarnings("WeakerAccess")
+@Configurable
+public class PreResolvedTaskFactory extends DefaultTaskFactory {
+
+	protected static final Set<String> INJECTION_ANNOTATIONS = ImmutableSet.of(
+		"org.springframework.beans.factory.annotation.Autowired",
+		"org.springframework.beans.factory.annotation.Value",
+		"javax.inject.Inject",
+		"javax.annotation.Resource");
+
+	protected static final Set<String> LIFECYCLE_ANNOTATIONS = ImmutableSet.<String>builder()
+		.addAll(INJECTION_ANNOTATIONS)
+		.add("javax.annotation.PostConstruct")
+		.build();
+
+	protected static final Set<String> PASSIVE_POST_PROCESSORS = ImmutableSet.of(
+		"org.springframework.beans.factory.annotation.AutowiredAnnotationBeanPostProcessor",
+		"org.springframework.context.annotation.CommonAnnotationBeanPostProcessor",
+		"org.springframework.context.annotation.ConfigurationClassPostProcessor$ImportAwareBeanPostProcessor",
+		"org.springframework.context.support.ApplicationContextAwareProcessor",
+		"org.springframework.context.support.ApplicationListenerDetector",
+		"org.springframework.context.support.PostProcessorRegistrationDelegate$BeanPostProcessorChecker",
+		"org.springframework.context.weaving.LoadTimeWeaverAwareProcessor");
+
+	protected volatile Template template;
+
+	@Autowired
+	PreResolvedTaskFactory(EventManager eventManager) {
+		super(eventManager);
+	}
+
+	@Override
+	protected Callable<MartiniResult> getCallable(Martini martini) {
+		Template resolved = template;
+		if (null == resolved) {
+			Callable<MartiniResult> wired = super.getCallable(martini);
+			resolveTemplate(wired);
+			return wired;
+		}
+		return null == resolved.fields ? super.getCallable(martini) : resolved.wire(newCallable(martini));
+	}
+
+	protected synchronized void resolveTemplate(Callable<MartiniResult> wired) {
+		if (null == template) {
+			Class<?> implementation = wired.getClass();
+			Field[] fields = getInjectedFields(implementation);
+			boolean resolvable = isPreResolvable(implementation) && isPassivelyPostProcessed() &&
+				Arrays.stream(fields).allMatch(this::isSingletonScoped);
+			template = resolvable ? new Template(fields, wired) : new Template();
+			logger.info(null == template.fields ?
+				"{} requires full wiring per task; unable to pre-resolve injection" :
+				"pre-resolved injection of {} fields", implementation.getName());
+		}
+	}
+
+	protected static Field[] getInjectedFields(Class<?> implementation) {
+		List<Field> injected = new ArrayList<>();
+		ReflectionUtils.doWithFields(
+			implementation,
+			injected::add,
+			field -> !Modifier.isStatic(field.getModifiers()) && isAnnotated(field, INJECTION_ANNOTATIONS));
+		return injected.toArray(new Field[0]);
+	}
+
+	protected boolean isPassivelyPostProcessed() {
+		AutowireCapableBeanFactory beanFactory = applicationContext.getAutowireCapableBeanFactory();
+		return beanFactory instanceof AbstractBeanFactory &&
+			((AbstractBeanFactory) beanFactory).getBeanPostProcessors().stream()
+				.map(processor -> processor.getClass().getName())
+				.allMatch(PASSIVE_POST_PROCESSORS::contains);
+	}
+
+	protected boolean isSingletonScoped(Field field) {
+		ResolvableType dependency = getDependencyType(ResolvableType.forField(field));
+		String[] names = applicationContext.getBeanNamesForType(dependency, true, false);
+		return Arrays.stream(names).allMatch(applicationContext::isSingleton);
+	}
+
+	protected static ResolvableType getDependencyType(ResolvableType type) {
+		Class<?> raw = type.resolve(Object.class);
+		ResolvableType dependency = type;
+		if (type.isArray()) {
+			dependency = type.getComponentType();
+		}
+		else if (Collection.class.isAssignableFrom(raw) || Optional.class == raw) {
+			dependency = type.getGeneric(0);
+		}
+		else if (Map.class.isAssignableFrom(raw)) {
+			dependency = type.getGeneric(1);
+		}
+		return ResolvableType.NONE == dependency ? ResolvableType.forClass(Object.class) : dependency;
+	}
+
+	protected boolean isPreResolvable(Class<?> implementation) {
+		boolean lifecycle = Aware.class.isAssignableFrom(implementation) ||
+			InitializingBean.class.isAssignableFrom(implementation);
+		Method[] methods = ReflectionUtils.getUniqueDeclaredMethods(implementation, ReflectionUtils.USER_DECLARED_METHODS);
+		return !lifecycle && Arrays.stream(methods).noneMatch(method -> isAnnotated(method, LIFECYCLE_ANNOTATIONS));
+	}
+
+	protected static boolean isAnnotated(AnnotatedElement element, Set<String> annotationNames) {
+		return Arrays.stream(element.getAnnotations())
+			.map(Annotation::annotationType)
+			.map(Class::getName)
+			.anyMatch(annotationNames::contains);
+	}
+
+	protected static class Template {
+
+		protected final Field[] fields;
+		protected final Object[] values;
+
+		protected Template() {
+			fields = null;
+			values = null;
+		}
+
+		protected Template(Field[] fields, Callable<MartiniResult> wired) {
+			this.fields = fields;
+			values = new Object[fields.length];
+			for (int i = 0; i < fields.length; i++) {
+				ReflectionUtils.makeAccessible(fields[i]);
+				values[i] = ReflectionUtils.getField(fields[i], wired);
+			}
+		}
+
+		protected Callable<MartiniResult> wire(Callable<MartiniResult> callable) {
+			for (int i = 0; i < fields.length; i++) {
+				ReflectionUtils.setField(fields[i], callable, values[i]);
+			}
+			return callable;
+		}
+	}
+}
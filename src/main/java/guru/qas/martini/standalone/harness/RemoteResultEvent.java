@@ -0,0 +1,50 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package guru.qas.martini.standalone.harness;
+
+import java.util.Optional;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.springframework.context.ApplicationEvent;
+
+import com.google.gson.JsonObject;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+@SuppressWarnings("WeakerAccess")
+public class RemoteResultEvent extends ApplicationEvent {
+
+	protected final JsonObject feature;
+	protected final JsonObject result;
+
+	public RemoteResultEvent(@Nonnull Object source, @Nullable JsonObject feature, @Nonnull JsonObject result) {
+		super(source);
+		this.feature = feature;
+		this.result = checkNotNull(result, "null JsonObject");
+	}
+
+	public Optional<JsonObject> getFeature() {
+		return Optional.ofNullable(feature);
+	}
+
+	@Nonnull
+	public JsonObject getResult() {
+		return result;
+	}
+}
@@ -0,0 +1,50 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package guru.qas.martini.standalone.harness;
+
+import javax.annotation.Nonnull;
+
+import org.springframework.context.ApplicationEvent;
+
+import guru.qas.martini.Martini;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+@SuppressWarnings("WeakerAccess")
+public class ScenarioSkippedEvent extends ApplicationEvent {
+
+	public static final String SKIPPED = "SKIPPED";
+
+	protected final Martini martini;
+	protected final String reason;
+
+	public ScenarioSkippedEvent(@Nonnull Object source, @Nonnull Martini martini, @Nonnull String reason) {
+		super(source);
+		this.martini = checkNotNull(martini, "null Martini");
+		this.reason = checkNotNull(reason, "null String");
+	}
+
+	@Nonnull
+	public Martini getMartini() {
+		return martini;
+	}
+
+	@Nonnull
+	public String getReason() {
+		return reason;
+	}
+}
@@ -0,0 +1,167 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package guru.qas.martini.standalone.harness;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeoutException;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.ApplicationEventPublisher;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import guru.qas.martini.Martini;
+import guru.qas.martini.tag.MartiniTag;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+@SuppressWarnings("WeakerAccess")
+public class ScenarioWatchdog implements DisposableBean {
+
+	protected static final Logger LOGGER = LoggerFactory.getLogger(ScenarioWatchdog.class);
+
+	protected final ApplicationEventPublisher publisher;
+	protected final Duration defaultTimeout;
+	protected final String tag;
+	protected final ScheduledThreadPoolExecutor scheduler;
+
+	public ScenarioWatchdog(
+		@Nonnull ApplicationEventPublisher publisher,
+		@Nullable Duration defaultTimeout,
+		@Nonnull String tag
+	) {
+		this.publisher = checkNotNull(publisher, "null ApplicationEventPublisher");
+		checkArgument(null == defaultTimeout || !defaultTimeout.isNegative() && !defaultTimeout.isZero(),
+			"timeout must be greater than zero: %s", defaultTimeout);
+		this.defaultTimeout = defaultTimeout;
+		this.tag = checkNotNull(tag, "null String");
+		scheduler = new ScheduledThreadPoolExecutor(1, new ThreadFactoryBuilder()
+			.setNameFormat("martini-watchdog-%d")
+			.setDaemon(true)
+			.build());
+		scheduler.setRemoveOnCancelPolicy(true);
+	}
+
+	public Optional<Duration> getTimeout(@Nonnull Martini martini) {
+		checkNotNull(martini, "null Martini");
+		Collection<MartiniTag> tags = martini.getTags();
+		String argument = null == tags ? null : tags.stream()
+			.filter(candidate -> tag.equals(candidate.getName()))
+			.map(MartiniTag::getArgument)
+			.filter(value -> null != value && !value.isBlank())
+			.findFirst()
+			.orElse(null);
+		return null == argument ? Optional.ofNullable(defaultTimeout) : getTimeout(martini, argument);
+	}
+
+	protected Optional<Duration> getTimeout(Martini martini, String argument) {
+		try {
+			long seconds = Long.parseLong(argument.trim());
+			return 0 < seconds ? Optional.of(Duration.ofSeconds(seconds)) : Optional.empty();
+		}
+		catch (NumberFormatException e) {
+			LOGGER.warn("ignoring invalid @{}(\"{}\") on {}", tag, argument, martini.getId());
+			return Optional.ofNullable(defaultTimeout);
+		}
+	}
+
+	@Nonnull
+	public Watch watch(@Nonnull Martini martini, @Nonnull Runnable releaser) {
+		checkNotNull(releaser, "null Runnable");
+		Duration timeout = getTimeout(martini).orElse(null);
+		Watch watch = new Watch(martini, Thread.currentThread(), timeout, releaser);
+		if (null != timeout) {
+			watch.setFuture(scheduler.schedule(watch::expire, timeout.toMillis(), MILLISECONDS));
+		}
+		return watch;
+	}
+
+	@Override
+	public void destroy() {
+		scheduler.shutdownNow();
+	}
+
+	public class Watch {
+
+		protected final Martini martini;
+		protected final Thread thread;
+		protected final Duration timeout;
+		protected final Runnable releaser;
+
+		protected ScheduledFuture<?> future;
+		protected boolean cancelled;
+		protected boolean expired;
+
+		protected Watch(Martini martini, Thread thread, Duration timeout, Runnable releaser) {
+			this.martini = martini;
+			this.thread = thread;
+			this.timeout = timeout;
+			this.releaser = releaser;
+		}
+
+		protected synchronized void setFuture(ScheduledFuture<?> future) {
+			this.future = future;
+			if (cancelled) {
+				future.cancel(false);
+			}
+		}
+
+		protected synchronized void expire() {
+			if (!cancelled) {
+				expired = true;
+				StackTraceElement[] stackTrace = thread.getStackTrace();
+				TimeoutException exception = new TimeoutException(thread.getName());
+				exception.setStackTrace(stackTrace);
+				LOGGER.warn("{} timed out after {}; releasing gates and interrupting {}",
+					martini.getId(), timeout, thread.getName(), exception);
+				try {
+					publisher.publishEvent(
+						new ScenarioTimedOutEvent(ScenarioWatchdog.this, martini, timeout, thread.getName(), stackTrace));
+				}
+				finally {
+					releaser.run();
+					thread.interrupt();
+				}
+			}
+		}
+
+		public synchronized boolean isExpired() {
+			return expired;
+		}
+
+		public synchronized void cancel() {
+			cancelled = true;
+			if (null != future) {
+				future.cancel(false);
+			}
+			if (expired && Thread.currentThread() == thread) {
+				Thread.interrupted();
+			}
+		}
+	}
+}
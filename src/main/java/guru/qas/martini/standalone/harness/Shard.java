@@ -0,0 +1,120 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package guru.qas.martini.standalone.harness;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.stream.Collectors;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+import guru.qas.martini.Martini;
+import guru.qas.martini.standalone.io.DurationHistory;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+@SuppressWarnings("WeakerAccess")
+public class Shard {
+
+	protected static final HashFunction HASH_FUNCTION = Hashing.murmur3_32();
+
+	protected final int index;
+	protected final int count;
+	protected final DurationHistory history;
+
+	public Shard(int index, int count, @Nullable DurationHistory history) {
+		checkArgument(count > 0, "illegal shard count %s; must be greater than zero", count);
+		checkArgument(index >= 0 && index < count, "illegal shard index %s; must be between 0 and %s", index, count - 1);
+		this.index = index;
+		this.count = count;
+		this.history = history;
+	}
+
+	public int getIndex() {
+		return index;
+	}
+
+	public int getCount() {
+		return count;
+	}
+
+	public boolean isBalanced() {
+		return null != history;
+	}
+
+	@Nonnull
+	public List<Martini> select(@Nonnull Collection<Martini> martinis) {
+		checkNotNull(martinis, "null Collection");
+		List<Martini> selected;
+		if (1 == count) {
+			selected = new ArrayList<>(martinis);
+		}
+		else if (isBalanced()) {
+			selected = selectBalanced(martinis);
+		}
+		else {
+			selected = martinis.stream()
+				.filter(martini -> index == getHashShard(martini))
+				.collect(Collectors.toList());
+		}
+		return selected;
+	}
+
+	protected int getHashShard(Martini martini) {
+		int hash = HASH_FUNCTION.hashString(martini.getId(), UTF_8).asInt();
+		return Math.floorMod(hash, count);
+	}
+
+	protected List<Martini> selectBalanced(Collection<Martini> martinis) {
+		List<Martini> ordered = new ArrayList<>(martinis);
+		ordered.sort(Comparator.<Martini>comparingLong(martini -> history.getDuration(martini.getId()))
+			.reversed()
+			.thenComparing(Martini::getId));
+
+		PriorityQueue<long[]> loads = new PriorityQueue<>(count, Comparator
+			.<long[]>comparingLong(load -> load[0])
+			.thenComparingLong(load -> load[1]));
+		for (int i = 0; i < count; i++) {
+			loads.add(new long[]{0, i});
+		}
+
+		List<Martini> selected = new ArrayList<>();
+		for (Martini martini : ordered) {
+			long[] lightest = loads.poll();
+			if (index == lightest[1]) {
+				selected.add(martini);
+			}
+			lightest[0] += Math.max(1, history.getDuration(martini.getId()));
+			loads.add(lightest);
+		}
+		return selected;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("shard %s of %s", index + 1, count);
+	}
+}
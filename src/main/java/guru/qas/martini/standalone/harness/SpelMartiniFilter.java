@@ -0,0 +1,122 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package guru.qas.martini.standalone.harness;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.context.expression.BeanFactoryResolver;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.Expression;
+import org.springframework.expression.MethodResolver;
+import org.springframework.expression.PropertyAccessor;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.standard.SpelExpression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+
+import guru.qas.martini.Martini;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+@SuppressWarnings("WeakerAccess")
+public class SpelMartiniFilter {
+
+	protected final String filter;
+	protected final SpelCompilerMode compilerMode;
+	protected final BeanFactory beanFactory;
+	protected final List<MethodResolver> methodResolvers;
+	protected final List<PropertyAccessor> propertyAccessors;
+	protected final ThreadLocal<EvaluationContext> contexts;
+
+	protected boolean compiled;
+
+	public SpelMartiniFilter(
+		@Nonnull String filter,
+		@Nonnull SpelCompilerMode compilerMode,
+		@Nullable BeanFactory beanFactory,
+		@Nonnull Collection<MethodResolver> methodResolvers,
+		@Nonnull Collection<PropertyAccessor> propertyAccessors
+	) {
+		this.filter = checkNotNull(filter, "null String");
+		this.compilerMode = checkNotNull(compilerMode, "null SpelCompilerMode");
+		this.beanFactory = beanFactory;
+		this.methodResolvers = new ArrayList<>(checkNotNull(methodResolvers, "null Collection"));
+		this.propertyAccessors = new ArrayList<>(checkNotNull(propertyAccessors, "null Collection"));
+		this.contexts = ThreadLocal.withInitial(this::getEvaluationContext);
+	}
+
+	public boolean isCompiled() {
+		return compiled;
+	}
+
+	protected EvaluationContext getEvaluationContext() {
+		StandardEvaluationContext context = new StandardEvaluationContext();
+		if (null != beanFactory) {
+			context.setBeanResolver(new BeanFactoryResolver(beanFactory));
+		}
+		methodResolvers.forEach(context::addMethodResolver);
+		propertyAccessors.forEach(context::addPropertyAccessor);
+		return context;
+	}
+
+	@Nonnull
+	public List<Martini> select(
+		@Nonnull Collection<Martini> martinis,
+		@Nonnull ForkJoinPool forkJoinPool
+	) throws ExecutionException, InterruptedException {
+		checkNotNull(martinis, "null Collection");
+		checkNotNull(forkJoinPool, "null ForkJoinPool");
+
+		List<Martini> candidates = new ArrayList<>(martinis);
+		Expression expression = getExpression(candidates);
+		return forkJoinPool.submit(() -> candidates.parallelStream()
+			.filter(martini -> isMatch(expression, martini))
+			.collect(Collectors.toList())
+		).get();
+	}
+
+	protected Expression getExpression(List<Martini> candidates) {
+		Expression expression = parse(compilerMode);
+		if (SpelCompilerMode.OFF != compilerMode && !candidates.isEmpty()) {
+			isMatch(expression, candidates.get(0));
+			compiled = ((SpelExpression) expression).compileExpression();
+			expression = compiled ? expression : parse(SpelCompilerMode.OFF);
+		}
+		return expression;
+	}
+
+	protected Expression parse(SpelCompilerMode mode) {
+		ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+		SpelParserConfiguration configuration = new SpelParserConfiguration(mode, classLoader);
+		return new SpelExpressionParser(configuration).parseExpression(filter);
+	}
+
+	protected boolean isMatch(Expression expression, Martini martini) {
+		Boolean match = expression.getValue(contexts.get(), martini, Boolean.class);
+		return Boolean.TRUE.equals(match);
+	}
+}
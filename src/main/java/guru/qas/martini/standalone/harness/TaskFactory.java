@@ -24,4 +24,7 @@ import guru.qas.martini.Martini;
 public interface TaskFactory {
 
 	Runnable getTask(Iterator<Optional<Martini>> i);
+
+	default void cancel() {
+	}
 }
\ No newline at end of file
@@ -0,0 +1,37 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package guru.qas.martini.standalone.harness;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import guru.qas.martini.Martini;
+import guru.qas.martini.result.MartiniResult;
+
+public interface WorkerLifecycleListener {
+
+	default void onWorkerStart(@Nonnull Thread worker) {
+	}
+
+	default void beforeScenario(@Nonnull Martini martini) {
+	}
+
+	default void afterScenario(@Nonnull Martini martini, @Nullable MartiniResult result) {
+	}
+
+	default void onWorkerTermination(@Nonnull Thread worker, @Nullable Throwable exception) {
+	}
+}
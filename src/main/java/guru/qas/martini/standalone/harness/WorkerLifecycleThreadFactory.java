@@ -0,0 +1,91 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package guru.qas.martini.standalone.harness;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+import javax.annotation.Nonnull;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+@SuppressWarnings("WeakerAccess")
+public class WorkerLifecycleThreadFactory implements ForkJoinPool.ForkJoinWorkerThreadFactory {
+
+	protected static final Logger LOGGER = LoggerFactory.getLogger(WorkerLifecycleThreadFactory.class);
+
+	protected final List<WorkerLifecycleListener> listeners;
+
+	public WorkerLifecycleThreadFactory(@Nonnull Collection<WorkerLifecycleListener> listeners) {
+		this.listeners = new ArrayList<>(checkNotNull(listeners, "null Collection"));
+	}
+
+	@Override
+	public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+		return new WorkerThread(pool);
+	}
+
+	protected void onStart(Thread worker) {
+		for (WorkerLifecycleListener listener : listeners) {
+			try {
+				listener.onWorkerStart(worker);
+			}
+			catch (RuntimeException e) {
+				LOGGER.warn("{} failed to start worker {}", listener, worker.getName(), e);
+			}
+		}
+	}
+
+	protected void onTermination(Thread worker, Throwable exception) {
+		for (WorkerLifecycleListener listener : listeners) {
+			try {
+				listener.onWorkerTermination(worker, exception);
+			}
+			catch (RuntimeException e) {
+				LOGGER.warn("{} failed to terminate worker {}", listener, worker.getName(), e);
+			}
+		}
+	}
+
+	protected class WorkerThread extends ForkJoinWorkerThread {
+
+		protected WorkerThread(ForkJoinPool pool) {
+			super(pool);
+		}
+
+		@Override
+		protected void onStart() {
+			super.onStart();
+			WorkerLifecycleThreadFactory.this.onStart(this);
+		}
+
+		@Override
+		protected void onTermination(Throwable exception) {
+			try {
+				WorkerLifecycleThreadFactory.this.onTermination(this, exception);
+			}
+			finally {
+				super.onTermination(exception);
+			}
+		}
+	}
+}
@@ -0,0 +1,217 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package guru.qas.martini.standalone.harness;
+
+import java.io.IOException;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Configurable;
+import org.springframework.beans.factory.annotation.Qualifier;
+
+import com.google.common.net.HostAndPort;
+
+import exception.MartiniException;
+import guru.qas.martini.Martini;
+import guru.qas.martini.Mixologist;
+import guru.qas.martini.event.SuiteIdentifier;
+import guru.qas.martini.runtime.event.EventManager;
+import guru.qas.martini.spring.standalone.ResultForwarder;
+import guru.qas.martini.spring.standalone.configuration.ExecutorServiceConfiguration;
+import guru.qas.martini.spring.standalone.configuration.ForkJoinPoolConfiguration;
+import guru.qas.martini.spring.standalone.configuration.MartiniComparatorConfiguration;
+
+import static guru.qas.martini.standalone.harness.DefaultMartiniStandaloneEngineMessages.*;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+@SuppressWarnings("WeakerAccess")
+@Configurable
+public class WorkerMartiniStandaloneEngine extends DefaultMartiniStandaloneEngine {
+
+	@Autowired
+	WorkerMartiniStandaloneEngine(
+		Options options,
+		Mixologist mixologist,
+		SuiteIdentifier suiteIdentifier,
+		@Qualifier(MartiniComparatorConfiguration.BEAN_NAME) Comparator<Martini> martiniComparator,
+		TaskFactory taskFactory,
+		EventManager eventManager,
+		@Qualifier(ForkJoinPoolConfiguration.BEAN_NAME) ForkJoinPool forkJoinPool,
+		@Qualifier(ExecutorServiceConfiguration.BEAN_NAME) ExecutorService executorService
+	) {
+		super(options, mixologist, suiteIdentifier, martiniComparator, taskFactory, eventManager, forkJoinPool,
+			executorService);
+	}
+
+	@Override
+	protected Collection<Martini> getMartinis() {
+		Collection<Martini> martinis = mixologist.getMartinis();
+		assertMartinisFound(null, martinis);
+		return martinis;
+	}
+
+	@Override
+	protected Runnable getRunnable(Collection<Martini> martinis) {
+		HostAndPort coordinator = options.getPullFrom().orElseThrow(() -> new IllegalStateException("no coordinator"));
+		Map<String, Martini> index = martinis.stream()
+			.collect(Collectors.toMap(Martini::getId, Function.identity(), (first, second) -> first));
+		int slots = getConcurrencyLimit();
+		ResultForwarder forwarder = options.isForwardResults() ? applicationContext.getBean(ResultForwarder.class) : null;
+
+		return () -> {
+			logger.info("pulling Martinis from coordinator {} with {} connections", coordinator, slots);
+			List<Future<?>> futures = new ArrayList<>(slots);
+			for (int slot = 0; slot < slots; slot++) {
+				futures.add(executorService.submit(() -> pull(coordinator, index, forwarder)));
+			}
+			for (Future<?> future : futures) {
+				await(future);
+			}
+		};
+	}
+
+	protected void await(Future<?> future) {
+		try {
+			future.get();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new MartiniException(e, EXECUTION_INTERRUPTED);
+		}
+		catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			throw cause instanceof MartiniException ? (MartiniException) cause : new RuntimeException(cause);
+		}
+	}
+
+	protected void pull(HostAndPort coordinator, Map<String, Martini> index, ResultForwarder forwarder) {
+		try (CoordinatorConnection connection = connect(coordinator)) {
+			Optional<String> next;
+			while ((next = connection.next()).isPresent()) {
+				String id = next.get();
+				Martini martini = index.get(id);
+				if (null == martini) {
+					throw new MartiniException(UNKNOWN_MARTINI, id);
+				}
+				execute(new Assignment(connection, martini, forwarder));
+			}
+		}
+		catch (IOException e) {
+			throw new MartiniException(e, COORDINATOR_UNAVAILABLE, coordinator);
+		}
+	}
+
+	protected void execute(Assignment assignment) {
+		String id = assignment.martini.getId();
+		Runnable task = taskFactory.getTask(assignment);
+		try {
+			task.run();
+		}
+		catch (RuntimeException e) {
+			logger.warn("execution failed for {}", id, e);
+		}
+		finally {
+			assignment.discard(id);
+		}
+	}
+
+	protected CoordinatorConnection connect(HostAndPort coordinator) throws IOException {
+		long deadline = System.nanoTime() + SECONDS.toNanos(options.getCoordinatorConnectTimeoutSeconds());
+		while (true) {
+			try {
+				Socket socket = new Socket(coordinator.getHost(), coordinator.getPort());
+				return new CoordinatorConnection(socket);
+			}
+			catch (IOException e) {
+				if (System.nanoTime() > deadline) {
+					throw e;
+				}
+				sleep();
+			}
+		}
+	}
+
+	protected static class Assignment implements GatedIterator {
+
+		protected final CoordinatorConnection connection;
+		protected final ResultForwarder forwarder;
+		protected Martini martini;
+
+		protected Assignment(CoordinatorConnection connection, Martini martini, ResultForwarder forwarder) {
+			this.connection = connection;
+			this.martini = martini;
+			this.forwarder = forwarder;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return null != martini;
+		}
+
+		@Override
+		public Optional<Martini> next() {
+			Optional<Martini> next = Optional.ofNullable(martini);
+			martini = null;
+			return next;
+		}
+
+		@Override
+		public void release(Martini martini) {
+			try {
+				String id = martini.getId();
+				Optional<String> result = null == forwarder ? Optional.empty() : forwarder.take(id);
+				if (result.isPresent()) {
+					connection.result(result.get());
+				}
+				connection.complete(id);
+			}
+			catch (IOException e) {
+				throw new RuntimeException("unable to report completion of " + martini.getId(), e);
+			}
+		}
+
+		@Override
+		public void expire(Martini martini) {
+			try {
+				String id = martini.getId();
+				discard(id);
+				connection.timedOut(id);
+			}
+			catch (IOException e) {
+				throw new RuntimeException("unable to report timeout of " + martini.getId(), e);
+			}
+		}
+
+		protected void discard(String id) {
+			if (null != forwarder) {
+				forwarder.take(id);
+			}
+		}
+	}
+}
@@ -0,0 +1,164 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package guru.qas.martini.standalone.harness;
+
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+
+import guru.qas.martini.Martini;
+import guru.qas.martini.result.MartiniResult;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+@SuppressWarnings("WeakerAccess")
+public abstract class WorkerResourcePool<T> implements WorkerLifecycleListener, DisposableBean {
+
+	protected final Logger logger;
+	protected final int maxUses;
+	protected final ConcurrentMap<Thread, Slot<T>> slots;
+
+	protected WorkerResourcePool(int maxUses) {
+		checkArgument(maxUses >= 0, "maximum uses must be zero or greater: %s", maxUses);
+		this.maxUses = maxUses;
+		logger = LoggerFactory.getLogger(this.getClass());
+		slots = new ConcurrentHashMap<>();
+	}
+
+	@Nonnull
+	protected abstract T create() throws Exception;
+
+	protected boolean isHealthy(@Nonnull T resource) throws Exception {
+		return true;
+	}
+
+	protected void close(@Nonnull T resource) throws Exception {
+		if (resource instanceof AutoCloseable) {
+			((AutoCloseable) resource).close();
+		}
+	}
+
+	@Nonnull
+	public T get() {
+		Slot<T> slot = slots.computeIfAbsent(Thread.currentThread(), thread -> new Slot<>());
+		synchronized (slot) {
+			if (null == slot.resource) {
+				slot.resource = checkNotNull(getNew(), "null resource");
+				slot.uses = 0;
+			}
+			slot.used = true;
+			return slot.resource;
+		}
+	}
+
+	protected T getNew() {
+		try {
+			return create();
+		}
+		catch (RuntimeException e) {
+			throw e;
+		}
+		catch (Exception e) {
+			throw new IllegalStateException("unable to create worker resource", e);
+		}
+	}
+
+	@Override
+	public void beforeScenario(@Nonnull Martini martini) {
+		Slot<T> slot = slots.get(Thread.currentThread());
+		if (null != slot) {
+			synchronized (slot) {
+				if (null != slot.resource && !isReusable(slot)) {
+					recycle(slot);
+				}
+			}
+		}
+	}
+
+	protected boolean isReusable(Slot<T> slot) {
+		boolean reusable = 0 == maxUses || slot.uses < maxUses;
+		try {
+			reusable = reusable && isHealthy(slot.resource);
+		}
+		catch (Exception e) {
+			logger.warn("health check failed on {}", Thread.currentThread().getName(), e);
+			reusable = false;
+		}
+		return reusable;
+	}
+
+	@Override
+	public void afterScenario(@Nonnull Martini martini, @Nullable MartiniResult result) {
+		Thread thread = Thread.currentThread();
+		Slot<T> slot = slots.get(thread);
+		if (null != slot) {
+			synchronized (slot) {
+				slot.uses += slot.used ? 1 : 0;
+				slot.used = false;
+			}
+			if (!(thread instanceof WorkerLifecycleThreadFactory.WorkerThread)) {
+				release(thread);
+			}
+		}
+	}
+
+	@Override
+	public void onWorkerTermination(@Nonnull Thread worker, @Nullable Throwable exception) {
+		release(worker);
+	}
+
+	protected void release(Thread thread) {
+		Slot<T> slot = slots.remove(thread);
+		if (null != slot) {
+			synchronized (slot) {
+				recycle(slot);
+			}
+		}
+	}
+
+	protected void recycle(Slot<T> slot) {
+		T resource = slot.resource;
+		slot.resource = null;
+		slot.uses = 0;
+		if (null != resource) {
+			try {
+				close(resource);
+			}
+			catch (Exception e) {
+				logger.warn("unable to close worker resource {}", resource, e);
+			}
+		}
+	}
+
+	@Override
+	public void destroy() {
+		new ArrayList<>(slots.keySet()).forEach(this::release);
+	}
+
+	protected static class Slot<T> {
+		protected T resource;
+		protected int uses;
+		protected boolean used;
+	}
+}
@@ -0,0 +1,185 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package guru.qas.martini.standalone.io;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import javax.annotation.Nonnull;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static com.google.common.base.Preconditions.*;
+
+@SuppressWarnings("WeakerAccess")
+public class BatchingWriter<T> implements AutoCloseable {
+
+	protected static final Logger LOGGER = LoggerFactory.getLogger(BatchingWriter.class);
+	protected static final Object CLOSE = new Object();
+
+	protected final BlockingQueue<Object> buffer;
+	protected final int batchSize;
+	protected final long flushIntervalNanos;
+	protected final Handler<T> handler;
+	protected final Thread thread;
+	protected final ReadWriteLock lock;
+
+	protected boolean closed;
+
+	public BatchingWriter(
+		@Nonnull String name,
+		int capacity,
+		int batchSize,
+		long flushIntervalMs,
+		@Nonnull Handler<T> handler
+	) {
+		checkNotNull(name, "null String");
+		checkArgument(capacity > 0, "illegal capacity %s; must be greater than zero", capacity);
+		checkArgument(batchSize > 0, "illegal batch size %s; must be greater than zero", batchSize);
+		checkArgument(flushIntervalMs > 0, "illegal flush interval %s; must be greater than zero", flushIntervalMs);
+		this.buffer = new ArrayBlockingQueue<>(capacity + 1);
+		this.batchSize = batchSize;
+		this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+		this.handler = checkNotNull(handler, "null Handler");
+		this.thread = new Thread(this::drain, name);
+		this.thread.setDaemon(true);
+		this.lock = new ReentrantReadWriteLock();
+	}
+
+	public void start() {
+		thread.start();
+	}
+
+	public void put(@Nonnull T item) throws InterruptedException {
+		checkNotNull(item, "null item");
+		boolean late;
+		lock.readLock().lockInterruptibly();
+		try {
+			late = closed;
+			if (!late) {
+				buffer.put(item);
+			}
+		}
+		finally {
+			lock.readLock().unlock();
+		}
+
+		if (late) {
+			LOGGER.warn("{} closed; writing late item synchronously", thread.getName());
+			write(Collections.singletonList(item));
+			flush();
+		}
+	}
+
+	protected void drain() {
+		List<T> batch = new ArrayList<>(batchSize);
+		int unflushed = 0;
+		long lastFlush = System.nanoTime();
+		boolean draining = true;
+
+		while (draining) {
+			long wait = 0 == unflushed ? flushIntervalNanos : Math.max(0, lastFlush + flushIntervalNanos - System.nanoTime());
+			draining = poll(batch, wait);
+			write(batch);
+			unflushed += batch.size();
+			batch.clear();
+
+			long now = System.nanoTime();
+			if (0 < unflushed && (!draining || unflushed >= batchSize || now - lastFlush >= flushIntervalNanos)) {
+				flush();
+				unflushed = 0;
+				lastFlush = now;
+			}
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	protected boolean poll(List<T> batch, long waitNanos) {
+		boolean open = true;
+		try {
+			Object next = buffer.poll(waitNanos, TimeUnit.NANOSECONDS);
+			while (null != next && open && batch.size() < batchSize) {
+				open = CLOSE != next;
+				if (open) {
+					batch.add((T) next);
+					next = batch.size() < batchSize ? buffer.poll() : null;
+				}
+			}
+		}
+		catch (InterruptedException e) {
+			LOGGER.warn("{} interrupted; abandoning {} buffered items", thread.getName(), buffer.size());
+			Thread.currentThread().interrupt();
+			open = false;
+		}
+		return open;
+	}
+
+	protected void write(List<T> batch) {
+		if (!batch.isEmpty()) {
+			try {
+				handler.write(batch);
+			}
+			catch (Exception e) {
+				LOGGER.warn("{} unable to write batch of {} items", thread.getName(), batch.size(), e);
+			}
+		}
+	}
+
+	protected void flush() {
+		try {
+			handler.flush();
+		}
+		catch (Exception e) {
+			LOGGER.warn("{} unable to flush", thread.getName(), e);
+		}
+	}
+
+	@Override
+	public void close() throws InterruptedException {
+		boolean closing;
+		lock.writeLock().lockInterruptibly();
+		try {
+			closing = !closed;
+			closed = true;
+			if (closing) {
+				buffer.put(CLOSE);
+			}
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+
+		if (closing) {
+			thread.join();
+		}
+	}
+
+	public interface Handler<T> {
+
+		void write(List<T> batch) throws IOException;
+
+		void flush() throws IOException;
+	}
+}
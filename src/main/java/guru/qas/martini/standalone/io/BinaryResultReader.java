@@ -0,0 +1,122 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package guru.qas.martini.standalone.io;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import javax.annotation.Nonnull;
+
+import static com.google.common.base.Preconditions.*;
+import static guru.qas.martini.standalone.io.BinaryResultWriter.*;
+
+@SuppressWarnings("WeakerAccess")
+public class BinaryResultReader implements Closeable {
+
+	protected final DataInputStream inputStream;
+	protected final List<String> dictionary;
+
+	public BinaryResultReader(@Nonnull InputStream inputStream) throws IOException {
+		checkNotNull(inputStream, "null InputStream");
+		this.inputStream = new DataInputStream(new BufferedInputStream(inputStream, 64 * 1024));
+		this.dictionary = new ArrayList<>();
+		dictionary.add(null);
+
+		int magic = this.inputStream.readInt();
+		checkState(MAGIC == magic, "not a binary Martini result stream");
+		int version = this.inputStream.readUnsignedByte();
+		checkState(VERSION == version, "unsupported binary Martini result version %s", version);
+	}
+
+	public ResultRecord read() throws IOException {
+		int type = inputStream.read();
+		if (-1 == type) {
+			return null;
+		}
+		checkState(RECORD == type, "unrecognized binary Martini record type %s", type);
+
+		String id = inputStream.readUTF();
+		String status = readReference();
+		long startTimestamp = readVarLong() - 1;
+		long executionTimeMs = readVarLong() - 1;
+		String threadName = readReference();
+		String host = readReference();
+		return new ResultRecord(id, status, startTimestamp, executionTimeMs, threadName, host);
+	}
+
+	protected String readReference() throws IOException {
+		int reference = (int) readVarLong();
+		if (reference == dictionary.size()) {
+			dictionary.add(inputStream.readUTF());
+		}
+		checkState(reference < dictionary.size(), "invalid dictionary reference %s", reference);
+		return dictionary.get(reference);
+	}
+
+	protected long readVarLong() throws IOException {
+		long value = 0;
+		for (int shift = 0; shift < 64; shift += 7) {
+			int b = inputStream.read();
+			if (-1 == b) {
+				throw new EOFException("truncated binary Martini record");
+			}
+			value |= (long) (b & 0x7F) << shift;
+			if (0 == (b & 0x80)) {
+				return value;
+			}
+		}
+		throw new IOException("malformed variable-length value");
+	}
+
+	public void forEach(@Nonnull Consumer<ResultRecord> consumer) throws IOException {
+		checkNotNull(consumer, "null Consumer");
+		ResultRecord record;
+		while (null != (record = read())) {
+			consumer.accept(record);
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		inputStream.close();
+	}
+
+	public static void forEach(@Nonnull File file, @Nonnull Consumer<ResultRecord> consumer) throws IOException {
+		checkNotNull(file, "null File");
+		try (BinaryResultReader reader = new BinaryResultReader(Compression.open(file))) {
+			reader.forEach(consumer);
+		}
+	}
+
+	public static boolean isBinary(@Nonnull File file) throws IOException {
+		checkNotNull(file, "null File");
+		try (DataInputStream inputStream = new DataInputStream(Compression.open(file))) {
+			return MAGIC == inputStream.readInt();
+		}
+		catch (EOFException e) {
+			return false;
+		}
+	}
+}
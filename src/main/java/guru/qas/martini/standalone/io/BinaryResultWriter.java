@@ -0,0 +1,91 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package guru.qas.martini.standalone.io;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+@SuppressWarnings("WeakerAccess")
+public class BinaryResultWriter implements Closeable {
+
+	public static final int MAGIC = 0x4D524253;
+	public static final int VERSION = 1;
+	protected static final int RECORD = 1;
+
+	protected final DataOutputStream outputStream;
+	protected final Map<String, Integer> dictionary;
+
+	public BinaryResultWriter(@Nonnull OutputStream outputStream) throws IOException {
+		checkNotNull(outputStream, "null OutputStream");
+		this.outputStream = new DataOutputStream(new BufferedOutputStream(outputStream, 64 * 1024));
+		this.dictionary = new HashMap<>();
+		this.outputStream.writeInt(MAGIC);
+		this.outputStream.writeByte(VERSION);
+	}
+
+	public void write(@Nonnull ResultRecord record) throws IOException {
+		checkNotNull(record, "null ResultRecord");
+		outputStream.writeByte(RECORD);
+		outputStream.writeUTF(record.getId());
+		writeReference(record.getStatus().orElse(null));
+		writeVarLong(record.getStartTimestamp() + 1);
+		writeVarLong(record.getExecutionTimeMs() + 1);
+		writeReference(record.getThreadName().orElse(null));
+		writeReference(record.getHost().orElse(null));
+	}
+
+	protected void writeReference(@Nullable String value) throws IOException {
+		Integer reference = null == value ? Integer.valueOf(0) : dictionary.get(value);
+		if (null == reference) {
+			int added = dictionary.size() + 1;
+			dictionary.put(value, added);
+			writeVarLong(added);
+			outputStream.writeUTF(value);
+		}
+		else {
+			writeVarLong(reference);
+		}
+	}
+
+	protected void writeVarLong(long value) throws IOException {
+		long remaining = value;
+		while ((remaining & ~0x7FL) != 0) {
+			outputStream.writeByte((int) ((remaining & 0x7F) | 0x80));
+			remaining >>>= 7;
+		}
+		outputStream.writeByte((int) remaining);
+	}
+
+	public void flush() throws IOException {
+		outputStream.flush();
+	}
+
+	@Override
+	public void close() throws IOException {
+		outputStream.close();
+	}
+}
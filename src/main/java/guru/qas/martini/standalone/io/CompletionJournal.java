@@ -0,0 +1,179 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package guru.qas.martini.standalone.io;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+@SuppressWarnings("WeakerAccess")
+public class CompletionJournal implements Closeable {
+
+	public static final String HEADER = "#martini-journal 1";
+
+	protected static final char SEPARATOR = '\t';
+	protected static final String UNKNOWN_STATUS = "-";
+
+	protected final FileChannel channel;
+	protected final int syncInterval;
+
+	protected int unsynced;
+
+	public CompletionJournal(@Nonnull File file) throws IOException {
+		this(file, 0);
+	}
+
+	public CompletionJournal(@Nonnull File file, int syncInterval) throws IOException {
+		checkNotNull(file, "null File");
+		checkArgument(0 <= syncInterval, "illegal sync interval %s", syncInterval);
+		this.syncInterval = syncInterval;
+		discardTornTail(file.toPath());
+		channel = FileChannel.open(file.toPath(), CREATE, WRITE, APPEND);
+		if (0 == channel.size()) {
+			write(HEADER + '\n');
+		}
+	}
+
+	protected static void discardTornTail(Path path) throws IOException {
+		if (Files.exists(path)) {
+			try (FileChannel existing = FileChannel.open(path, READ, WRITE)) {
+				long terminated = getTerminatedLength(existing);
+				if (terminated < existing.size()) {
+					existing.truncate(terminated);
+				}
+			}
+		}
+	}
+
+	protected static long getTerminatedLength(FileChannel existing) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(4096);
+		long end = existing.size();
+		long terminated = -1;
+		while (-1 == terminated && 0 < end) {
+			long start = Math.max(0, end - buffer.capacity());
+			buffer.clear().limit((int) (end - start));
+			int read = 0;
+			while (buffer.hasRemaining() && -1 != read) {
+				read = existing.read(buffer, start + buffer.position());
+			}
+			for (int index = buffer.position() - 1; -1 == terminated && 0 <= index; index--) {
+				terminated = '\n' == buffer.get(index) ? start + index + 1 : -1;
+			}
+			end = start;
+		}
+		return Math.max(0, terminated);
+	}
+
+	public synchronized void append(@Nonnull String id, @Nullable String status) throws IOException {
+		checkNotNull(id, "null String");
+		checkState(channel.isOpen(), "journal closed");
+		String recorded = null == status || status.isBlank() ? UNKNOWN_STATUS : status;
+		write(recorded + SEPARATOR + id + '\n');
+		unsynced++;
+		if (0 < syncInterval && unsynced >= syncInterval) {
+			sync();
+		}
+	}
+
+	public synchronized void sync() throws IOException {
+		if (channel.isOpen() && 0 < unsynced) {
+			channel.force(false);
+			unsynced = 0;
+		}
+	}
+
+	protected void write(String line) throws IOException {
+		ByteBuffer buffer = ByteBuffer.wrap(line.getBytes(UTF_8));
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		if (channel.isOpen()) {
+			channel.force(false);
+			channel.close();
+		}
+	}
+
+	public static boolean isJournal(@Nonnull File file) throws IOException {
+		checkNotNull(file, "null File");
+		try (BufferedReader reader = Files.newBufferedReader(file.toPath(), UTF_8)) {
+			return HEADER.equals(reader.readLine());
+		}
+		catch (IOException e) {
+			return false;
+		}
+	}
+
+	public static void forEach(@Nonnull File file, @Nonnull Consumer<ResultRecord> consumer) throws IOException {
+		checkNotNull(file, "null File");
+		checkNotNull(consumer, "null Consumer");
+
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(Files.newInputStream(file.toPath()), UTF_8))) {
+			StringBuilder line = new StringBuilder();
+			int c;
+			while (-1 != (c = reader.read())) {
+				if ('\n' == c) {
+					accept(line, consumer);
+					line.setLength(0);
+				}
+				else {
+					line.append((char) c);
+				}
+			}
+		}
+	}
+
+	protected static void accept(CharSequence sequence, Consumer<ResultRecord> consumer) {
+		int length = sequence.length();
+		String line = 0 < length && '\r' == sequence.charAt(length - 1) ?
+			sequence.subSequence(0, length - 1).toString() : sequence.toString();
+		int separator = line.indexOf(SEPARATOR);
+		if (!line.startsWith("#") && 0 < separator && separator < line.length() - 1) {
+			String status = line.substring(0, separator);
+			String id = line.substring(separator + 1);
+			consumer.accept(new ResultRecord(
+				id,
+				UNKNOWN_STATUS.equals(status) ? null : status,
+				ResultRecord.UNKNOWN,
+				ResultRecord.UNKNOWN,
+				null,
+				null));
+		}
+	}
+}
@@ -0,0 +1,95 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package guru.qas.martini.standalone.io;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import javax.annotation.Nonnull;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+public enum Compression {
+	NONE {
+		@Override
+		public OutputStream wrap(@Nonnull OutputStream outputStream) {
+			return checkNotNull(outputStream, "null OutputStream");
+		}
+
+		@Override
+		public InputStream wrap(@Nonnull InputStream inputStream) {
+			return checkNotNull(inputStream, "null InputStream");
+		}
+	},
+
+	GZIP {
+		@Override
+		public OutputStream wrap(@Nonnull OutputStream outputStream) throws IOException {
+			return new GZIPOutputStream(checkNotNull(outputStream, "null OutputStream"), BUFFER_SIZE);
+		}
+
+		@Override
+		public InputStream wrap(@Nonnull InputStream inputStream) throws IOException {
+			return new GZIPInputStream(checkNotNull(inputStream, "null InputStream"), BUFFER_SIZE);
+		}
+	};
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+	private static final String GZIP_EXTENSION = ".gz";
+	private static final int GZIP_MAGIC_0 = 0x1f;
+	private static final int GZIP_MAGIC_1 = 0x8b;
+
+	public abstract OutputStream wrap(@Nonnull OutputStream outputStream) throws IOException;
+
+	public abstract InputStream wrap(@Nonnull InputStream inputStream) throws IOException;
+
+	public static Compression forFile(@Nonnull File file) {
+		checkNotNull(file, "null File");
+		return file.getName().toLowerCase().endsWith(GZIP_EXTENSION) ? GZIP : NONE;
+	}
+
+	public static InputStream open(@Nonnull File file) throws IOException {
+		checkNotNull(file, "null File");
+		InputStream inputStream = new BufferedInputStream(Files.newInputStream(file.toPath()), BUFFER_SIZE);
+		try {
+			return detect(inputStream).wrap(inputStream);
+		}
+		catch (IOException | RuntimeException e) {
+			inputStream.close();
+			throw e;
+		}
+	}
+
+	public static Compression detect(@Nonnull InputStream inputStream) throws IOException {
+		checkNotNull(inputStream, "null InputStream");
+		checkArgument(inputStream.markSupported(), "InputStream does not support mark");
+		inputStream.mark(2);
+		try {
+			return GZIP_MAGIC_0 == inputStream.read() && GZIP_MAGIC_1 == inputStream.read() ? GZIP : NONE;
+		}
+		finally {
+			inputStream.reset();
+		}
+	}
+}
@@ -0,0 +1,86 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package guru.qas.martini.standalone.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+@SuppressWarnings("WeakerAccess")
+public class DurationHistory {
+
+	protected final Map<String, Long> durations;
+	protected final long defaultDuration;
+
+	protected DurationHistory(Map<String, Long> durations, long defaultDuration) {
+		this.durations = durations;
+		this.defaultDuration = defaultDuration;
+	}
+
+	public boolean isEmpty() {
+		return durations.isEmpty();
+	}
+
+	public int size() {
+		return durations.size();
+	}
+
+	public boolean contains(@Nonnull String id) {
+		return durations.containsKey(checkNotNull(id, "null String"));
+	}
+
+	public long getDuration(@Nonnull String id) {
+		checkNotNull(id, "null String");
+		return durations.getOrDefault(id, defaultDuration);
+	}
+
+	public long getDefaultDuration() {
+		return defaultDuration;
+	}
+
+	public static DurationHistory load(@Nonnull Collection<File> files) throws IOException {
+		checkNotNull(files, "null Collection");
+		Map<String, long[]> totals = new HashMap<>();
+		for (File file : files) {
+			ResultRecords.forEach(file, record -> {
+				long executionTimeMs = record.getExecutionTimeMs();
+				if (ResultRecord.UNKNOWN != executionTimeMs) {
+					long[] total = totals.computeIfAbsent(record.getId(), id -> new long[2]);
+					total[0] += executionTimeMs;
+					total[1]++;
+				}
+			});
+		}
+
+		Map<String, Long> durations = new HashMap<>(totals.size() * 2);
+		long sum = 0;
+		for (Map.Entry<String, long[]> entry : totals.entrySet()) {
+			long[] total = entry.getValue();
+			long mean = total[0] / total[1];
+			durations.put(entry.getKey(), mean);
+			sum += mean;
+		}
+		long defaultDuration = durations.isEmpty() ? 0 : sum / durations.size();
+		return new DurationHistory(durations, defaultDuration);
+	}
+}
@@ -0,0 +1,159 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package guru.qas.martini.standalone.io;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+@SuppressWarnings("WeakerAccess")
+public class JsonResultReader implements Closeable {
+
+	protected static final String KEY_ID = "id";
+	protected static final String KEY_STATUS = "status";
+	protected static final String KEY_START_TIMESTAMP = "startTimestamp";
+	protected static final String KEY_END_TIMESTAMP = "endTimestamp";
+	protected static final String KEY_EXECUTION_TIME_MS = "executionTimeMs";
+	protected static final String KEY_THREAD = "thread";
+
+	protected final JsonReader reader;
+	protected final Gson gson;
+
+	protected boolean truncated;
+
+	public JsonResultReader(@Nonnull InputStream inputStream) throws IOException {
+		checkNotNull(inputStream, "null InputStream");
+		reader = new JsonReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+		reader.setLenient(true);
+		gson = new Gson();
+		reader.beginArray();
+	}
+
+	public ResultRecord read() throws IOException {
+		ResultRecord record = null;
+		while (null == record && hasNext()) {
+			if (JsonToken.BEGIN_OBJECT == reader.peek()) {
+				JsonObject element = readObject();
+				record = null == element ? null : getRecord(element);
+			}
+			else {
+				reader.skipValue();
+			}
+		}
+		return record;
+	}
+
+	protected boolean hasNext() throws IOException {
+		try {
+			return !truncated && reader.hasNext();
+		}
+		catch (EOFException e) {
+			truncated = true;
+			return false;
+		}
+	}
+
+	protected JsonObject readObject() {
+		try {
+			return gson.fromJson(reader, JsonObject.class);
+		}
+		catch (JsonParseException e) {
+			Throwable cause = e.getCause();
+			if (!(cause instanceof EOFException || cause instanceof MalformedJsonException)) {
+				throw e;
+			}
+			truncated = true;
+			return null;
+		}
+	}
+
+	public boolean isTruncated() {
+		return truncated;
+	}
+
+	@Nullable
+	public static ResultRecord getRecord(@Nonnull JsonObject element) {
+		checkNotNull(element, "null JsonObject");
+		String id = getString(element, KEY_ID);
+		boolean result = null != id && element.has(KEY_STATUS);
+		return result ? new ResultRecord(
+			id,
+			getString(element, KEY_STATUS),
+			getLong(element, KEY_START_TIMESTAMP),
+			getExecutionTimeMs(element),
+			getString(element, KEY_THREAD),
+			null) : null;
+	}
+
+	protected static long getExecutionTimeMs(JsonObject element) {
+		long executionTimeMs = getLong(element, KEY_EXECUTION_TIME_MS);
+		long start = getLong(element, KEY_START_TIMESTAMP);
+		long end = getLong(element, KEY_END_TIMESTAMP);
+		boolean derivable = ResultRecord.UNKNOWN == executionTimeMs &&
+			ResultRecord.UNKNOWN != start && ResultRecord.UNKNOWN != end;
+		return derivable ? end - start : executionTimeMs;
+	}
+
+	protected static String getString(JsonObject element, String key) {
+		JsonElement member = element.get(key);
+		return null != member && member.isJsonPrimitive() ? member.getAsString() : null;
+	}
+
+	protected static long getLong(JsonObject element, String key) {
+		JsonElement member = element.get(key);
+		boolean numeric = null != member && member.isJsonPrimitive() && member.getAsJsonPrimitive().isNumber();
+		return numeric ? member.getAsLong() : ResultRecord.UNKNOWN;
+	}
+
+	public void forEach(@Nonnull Consumer<ResultRecord> consumer) throws IOException {
+		checkNotNull(consumer, "null Consumer");
+		ResultRecord record;
+		while (null != (record = read())) {
+			consumer.accept(record);
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		reader.close();
+	}
+
+	public static void forEach(@Nonnull File file, @Nonnull Consumer<ResultRecord> consumer) throws IOException {
+		checkNotNull(file, "null File");
+		try (JsonResultReader reader = new JsonResultReader(Compression.open(file))) {
+			reader.forEach(consumer);
+		}
+	}
+}
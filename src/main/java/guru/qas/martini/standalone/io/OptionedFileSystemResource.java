@@ -33,10 +33,20 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 public final class OptionedFileSystemResource extends FileSystemResource {
 
+	private final Compression compression;
 	private final OpenOption[] options;
 
 	public OptionedFileSystemResource(@Nonnull File file, @Nullable OpenOption... options) {
+		this(file, Compression.NONE, options);
+	}
+
+	public OptionedFileSystemResource(
+		@Nonnull File file,
+		@Nonnull Compression compression,
+		@Nullable OpenOption... options
+	) {
 		super(checkNotNull(file, "null File"));
+		this.compression = checkNotNull(compression, "null Compression");
 		this.options = null == options ? null : Arrays.copyOf(options, options.length);
 	}
 
@@ -46,6 +56,7 @@ public final class OptionedFileSystemResource extends FileSystemResource {
 		File file = super.getFile();
 		com.google.common.io.Files.createParentDirs(file);
 		Path path = file.toPath();
-		return Files.newOutputStream(path, options);
+		OutputStream outputStream = Files.newOutputStream(path, options);
+		return compression.wrap(outputStream);
 	}
 }
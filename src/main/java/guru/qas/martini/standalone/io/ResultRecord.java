@@ -0,0 +1,115 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package guru.qas.martini.standalone.io;
+
+import java.util.Objects;
+import java.util.Optional;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.google.common.base.MoreObjects;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+@SuppressWarnings("WeakerAccess")
+public final class ResultRecord {
+
+	public static final long UNKNOWN = -1;
+
+	private final String id;
+	private final String status;
+	private final long startTimestamp;
+	private final long executionTimeMs;
+	private final String threadName;
+	private final String host;
+
+	public ResultRecord(
+		@Nonnull String id,
+		@Nullable String status,
+		long startTimestamp,
+		long executionTimeMs,
+		@Nullable String threadName,
+		@Nullable String host
+	) {
+		this.id = checkNotNull(id, "null String");
+		this.status = status;
+		this.startTimestamp = startTimestamp;
+		this.executionTimeMs = executionTimeMs;
+		this.threadName = threadName;
+		this.host = host;
+	}
+
+	@Nonnull
+	public String getId() {
+		return id;
+	}
+
+	public Optional<String> getStatus() {
+		return Optional.ofNullable(status);
+	}
+
+	public long getStartTimestamp() {
+		return startTimestamp;
+	}
+
+	public long getExecutionTimeMs() {
+		return executionTimeMs;
+	}
+
+	public Optional<String> getThreadName() {
+		return Optional.ofNullable(threadName);
+	}
+
+	public Optional<String> getHost() {
+		return Optional.ofNullable(host);
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof ResultRecord)) {
+			return false;
+		}
+		ResultRecord that = (ResultRecord) o;
+		return startTimestamp == that.startTimestamp &&
+			executionTimeMs == that.executionTimeMs &&
+			id.equals(that.id) &&
+			Objects.equals(status, that.status) &&
+			Objects.equals(threadName, that.threadName) &&
+			Objects.equals(host, that.host);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(id, status, startTimestamp, executionTimeMs, threadName, host);
+	}
+
+	@Override
+	public String toString() {
+		return MoreObjects.toStringHelper(this)
+			.add("id", id)
+			.add("status", status)
+			.add("startTimestamp", startTimestamp)
+			.add("executionTimeMs", executionTimeMs)
+			.add("threadName", threadName)
+			.add("host", host)
+			.toString();
+	}
+}
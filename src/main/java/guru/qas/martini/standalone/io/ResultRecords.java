@@ -0,0 +1,45 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package guru.qas.martini.standalone.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.function.Consumer;
+
+import javax.annotation.Nonnull;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+public final class ResultRecords {
+
+	private ResultRecords() {
+	}
+
+	public static void forEach(@Nonnull File file, @Nonnull Consumer<ResultRecord> consumer) throws IOException {
+		checkNotNull(file, "null File");
+		checkNotNull(consumer, "null Consumer");
+		if (BinaryResultReader.isBinary(file)) {
+			BinaryResultReader.forEach(file, consumer);
+		}
+		else if (CompletionJournal.isJournal(file)) {
+			CompletionJournal.forEach(file, consumer);
+		}
+		else {
+			JsonResultReader.forEach(file, consumer);
+		}
+	}
+}
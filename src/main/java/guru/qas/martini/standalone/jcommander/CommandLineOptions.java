@@ -25,20 +25,29 @@ import java.util.stream.Collectors;
 
 import javax.annotation.Nonnull;
 
+import org.springframework.expression.spel.SpelCompilerMode;
+
 import com.beust.jcommander.Parameter;
 import com.google.common.base.Joiner;
 import com.google.common.collect.Lists;
+import com.google.common.net.HostAndPort;
 
 import guru.qas.martini.Martini;
 import guru.qas.martini.event.DefaultSuiteIdentifier;
 import guru.qas.martini.event.SuiteIdentifier;
+import guru.qas.martini.standalone.harness.CoordinatorMartiniStandaloneEngine;
 import guru.qas.martini.standalone.harness.DefaultMartiniComparator;
 import guru.qas.martini.standalone.harness.DefaultMartiniStandaloneEngine;
 import guru.qas.martini.standalone.harness.DefaultTaskFactory;
 import guru.qas.martini.standalone.harness.DefaultUncaughtExceptionHandler;
+import guru.qas.martini.standalone.harness.DispatchMode;
+import guru.qas.martini.standalone.harness.ExecutorType;
+import guru.qas.martini.standalone.harness.ForkingMartiniStandaloneEngine;
 import guru.qas.martini.standalone.harness.MartiniStandaloneEngine;
 import guru.qas.martini.standalone.harness.Options;
 import guru.qas.martini.standalone.harness.TaskFactory;
+import guru.qas.martini.standalone.harness.WorkerMartiniStandaloneEngine;
+import guru.qas.martini.standalone.io.Compression;
 
 import static com.google.common.base.Preconditions.*;
 
@@ -47,14 +56,50 @@ public class CommandLineOptions implements Options {
 	public static final String PARAMETER_CONFIG_LOCATIONS = "-configLocations";
 	public static final String PARAMETER_JSON_OVERWRITE = "-jsonOverwrite";
 	public static final String PARAMETER_JSON_OUTPUT_FILE = "-jsonOutputFile";
+	public static final String PARAMETER_JSON_COMPACT = "-jsonCompact";
+	public static final String PARAMETER_JSON_COMPRESSION = "-jsonCompression";
+	public static final String PARAMETER_JSON_ASYNC = "-jsonAsync";
+	public static final String PARAMETER_JSON_BUFFER_CAPACITY = "-jsonBufferCapacity";
+	public static final String PARAMETER_JSON_BATCH_SIZE = "-jsonBatchSize";
+	public static final String PARAMETER_JSON_FLUSH_INTERVAL_MS = "-jsonFlushIntervalMs";
+	public static final String PARAMETER_BINARY_OUTPUT_FILE = "-binaryOutputFile";
+	public static final String PARAMETER_LATENCY_OUTPUT_FILE = "-latencyOutputFile";
+	public static final String PARAMETER_JOURNAL_FILE = "-journalFile";
+	public static final String PARAMETER_JOURNAL_SYNC_INTERVAL = "-journalSyncInterval";
+	public static final String PARAMETER_RESUME_FROM = "-resumeFrom";
+	public static final String PARAMETER_RERUN_FAILED_FROM = "-rerunFailedFrom";
 	public static final String PARAMETER_SPEL_FILTER = "-spelFilter";
+	public static final String PARAMETER_SPEL_COMPILER_MODE = "-spelCompilerMode";
+	public static final String PARAMETER_SHARD_INDEX = "-shardIndex";
+	public static final String PARAMETER_SHARD_COUNT = "-shardCount";
+	public static final String PARAMETER_SHARD_BALANCE_FILE = "-shardBalanceFile";
 	public static final String PARAMETER_PARALLELISM = "-parallelism";
+	public static final String PARAMETER_EXECUTOR = "-executor";
+	public static final String PARAMETER_MAX_CONCURRENCY = "-maxConcurrency";
 	public static final String PARAMETER_UNIMPLEMENTED_STEPS_FATAL = "-unimplementedStepsFatal";
 	public static final String PARAMETER_AWAIT_TERMINATION_SECONDS = "-awaitTerminationS";
 	public static final String PARAMETER_TIMEOUT_MINUTES = "-timeoutInMinutes";
+	public static final String PARAMETER_SCENARIO_TIMEOUT_SECONDS = "-scenarioTimeoutSeconds";
+	public static final String PARAMETER_SCENARIO_TIMEOUT_TAG = "-scenarioTimeoutTag";
+	public static final String PARAMETER_MAX_FAILURES = "-maxFailures";
+	public static final String PARAMETER_FAIL_FAST = "-failFast";
+	public static final String PARAMETER_MAX_FAILURE_RATE = "-maxFailureRate";
+	public static final String PARAMETER_FAILURE_RATE_WINDOW = "-failureRateWindow";
+	public static final String PARAMETER_CANCEL_ON_HALT = "-cancelOnHalt";
+	public static final String PARAMETER_MAX_ATTEMPTS = "-maxAttempts";
+	public static final String PARAMETER_AFFINITY = "-affinity";
+	public static final String PARAMETER_AFFINITY_EXPRESSION = "-affinityExpression";
 	public static final String PARAMETER_JOB_POOL_POLL_INTERVAL_MS = "-jobPoolPollIntervalMs";
+	public static final String PARAMETER_DISPATCH_MODE = "-dispatchMode";
 	public static final String PARAMETER_GATE_MONITOR_POLL_TIMEOUT_MS = "-gateMonitorPollTimeoutMs";
 	public static final String PARAMETER_MARTINI_COMPARATOR_IMPL = "-gatedMartiniComparatorImplementation";
+	public static final String PARAMETER_DURATION_HISTORY_FILE = "-durationHistoryFile";
+	public static final String PARAMETER_COORDINATOR_PORT = "-coordinatorPort";
+	public static final String PARAMETER_PULL_FROM = "-pullFrom";
+	public static final String PARAMETER_COORDINATOR_CONNECT_TIMEOUT_SECONDS = "-coordinatorConnectTimeoutSeconds";
+	public static final String PARAMETER_FORK_COUNT = "-forkCount";
+	public static final String PARAMETER_FORK_JVM_ARGS = "-forkJvmArgs";
+	public static final String PARAMETER_FORWARD_RESULTS = "-forwardResults";
 	public static final String PARAMETER_ENGINE_IMPL = "-engineImplementation";
 	public static final String PARAMETER_SUITE_IDENTIFIER_IMPL = "-suiteIdentifierImplementation";
 	public static final String PARAMETER_TASK_FACTORY_IMPL = "-taskFactoryImplementation";
@@ -80,6 +125,81 @@ public class CommandLineOptions implements Options {
 		description = "JSON output file location for suite reporting, e.g. /tmp/martini.json")
 	protected File jsonOutputFile;
 
+	@Parameter(
+		names = PARAMETER_JSON_COMPACT,
+		description = "writes JSON output without pretty-printing whitespace"
+	)
+	protected boolean jsonCompact = false;
+
+	@Parameter(
+		names = PARAMETER_JSON_COMPRESSION,
+		description = "NONE or GZIP compression of JSON output (defaulted to GZIP for files ending in .gz)"
+	)
+	protected Compression jsonCompression;
+
+	@Parameter(
+		names = PARAMETER_JSON_ASYNC,
+		description = "serializes JSON output on a dedicated writer thread instead of scenario threads"
+	)
+	protected boolean jsonAsync = false;
+
+	@Parameter(
+		names = PARAMETER_JSON_BUFFER_CAPACITY,
+		description = "number of scenario results buffered for the JSON writer thread before scenarios wait; " +
+			"must be greater than zero",
+		validateValueWith = GreaterThanZeroValidator.class
+	)
+	protected int jsonBufferCapacity = 1024;
+
+	@Parameter(
+		names = PARAMETER_JSON_BATCH_SIZE,
+		description = "number of scenario results the JSON writer thread serializes between flushes; " +
+			"must be greater than zero",
+		validateValueWith = GreaterThanZeroValidator.class
+	)
+	protected int jsonBatchSize = 64;
+
+	@Parameter(
+		names = PARAMETER_JSON_FLUSH_INTERVAL_MS,
+		description = "maximum number of milliseconds the JSON writer thread holds unflushed output; " +
+			"must be greater than zero",
+		validateValueWith = GreaterThanZeroValidator.class
+	)
+	protected long jsonFlushIntervalMs = (long) 1000;
+
+	@Parameter(
+		names = PARAMETER_BINARY_OUTPUT_FILE,
+		description = "binary output file location for compact result summaries, e.g. /tmp/martini.bin")
+	protected File binaryOutputFile;
+
+	@Parameter(
+		names = PARAMETER_LATENCY_OUTPUT_FILE,
+		description = "output file for queue wait, gate wait and execution latency histograms, e.g. /tmp/latency.hgrm")
+	protected File latencyOutputFile;
+
+	@Parameter(
+		names = PARAMETER_JOURNAL_FILE,
+		description = "append-only journal of completed scenario ids and statuses, e.g. /tmp/martini.journal")
+	protected File journalFile;
+
+	@Parameter(
+		names = PARAMETER_JOURNAL_SYNC_INTERVAL,
+		description = "number of " + PARAMETER_JOURNAL_FILE + " entries appended between syncs to storage; " +
+			"0 syncs only when the journal is closed, which survives process death but not a machine failure",
+		validateValueWith = NonNegativeValidator.class
+	)
+	protected int journalSyncInterval = 16;
+
+	@Parameter(
+		names = PARAMETER_RESUME_FROM,
+		description = "journal, JSON or binary results of an interrupted run; scenarios completed there are not rerun")
+	protected File resumeFrom;
+
+	@Parameter(
+		names = PARAMETER_RERUN_FAILED_FROM,
+		description = "JSON, binary or journal results of a previous run; only scenarios which failed there are executed")
+	protected File rerunFailedFrom;
+
 	@Parameter(
 		names = PARAMETER_SPEL_FILTER,
 		variableArity = true,
@@ -88,6 +208,36 @@ public class CommandLineOptions implements Options {
 	)
 	protected List<String> spelFilter;
 
+	@Parameter(
+		names = PARAMETER_SPEL_COMPILER_MODE,
+		description = "OFF, IMMEDIATE or MIXED to evaluate " + PARAMETER_SPEL_FILTER + " in parallel on the " +
+			"Fork Join Pool with the given SpEL compiler mode; expressions that cannot be compiled are interpreted"
+	)
+	protected SpelCompilerMode spelCompilerMode;
+
+	@Parameter(
+		names = PARAMETER_SHARD_INDEX,
+		description = "zero-based index of the shard of selected scenarios to execute; must be less than " +
+			PARAMETER_SHARD_COUNT,
+		validateValueWith = NonNegativeValidator.class
+	)
+	protected int shardIndex = 0;
+
+	@Parameter(
+		names = PARAMETER_SHARD_COUNT,
+		description = "number of shards selected scenarios are partitioned into by stable id hash; " +
+			"must be greater than zero",
+		validateValueWith = GreaterThanZeroValidator.class
+	)
+	protected int shardCount = 1;
+
+	@Parameter(
+		names = PARAMETER_SHARD_BALANCE_FILE,
+		description = "JSON or binary output of previous runs used to partition shards by scenario duration " +
+			"instead of id hash"
+	)
+	protected List<File> shardBalanceFiles = Lists.newArrayList();
+
 	@Parameter(
 		names = PARAMETER_PARALLELISM,
 		description = "Fork Join Pool parallelism (defaulted to available processors); must be greater than zero",
@@ -95,6 +245,20 @@ public class CommandLineOptions implements Options {
 	)
 	protected int parallelism = Runtime.getRuntime().availableProcessors();
 
+	@Parameter(
+		names = PARAMETER_EXECUTOR,
+		description = "FORKJOIN to execute scenarios on the Fork Join Pool, " +
+			"VIRTUAL to execute each scenario on its own virtual thread"
+	)
+	protected ExecutorType executorType = ExecutorType.FORKJOIN;
+
+	@Parameter(
+		names = PARAMETER_MAX_CONCURRENCY,
+		description = "maximum number of scenarios executing at once; must be greater than zero",
+		validateValueWith = GreaterThanZeroValidator.class
+	)
+	protected int maxConcurrency = 256;
+
 	@Parameter(
 		names = PARAMETER_UNIMPLEMENTED_STEPS_FATAL,
 		description = "true to prevent execution when unimplemented steps are detected"
@@ -115,6 +279,75 @@ public class CommandLineOptions implements Options {
 	)
 	protected Long timeoutInMinutes = (long) (60 * 12);
 
+	@Parameter(
+		names = PARAMETER_SCENARIO_TIMEOUT_SECONDS,
+		description = "number of seconds after which a running scenario is interrupted and its gates released; " +
+			"a scenario that ignores the interrupt keeps its thread and counts against " + PARAMETER_MAX_CONCURRENCY +
+			" until it returns; must be greater than zero",
+		validateValueWith = GreaterThanZeroValidator.class
+	)
+	protected Long scenarioTimeoutSeconds;
+
+	@Parameter(
+		names = PARAMETER_SCENARIO_TIMEOUT_TAG,
+		description = "name of the tag whose argument overrides " + PARAMETER_SCENARIO_TIMEOUT_SECONDS +
+			" for a scenario, e.g. @Timeout(\"30\")"
+	)
+	protected String scenarioTimeoutTag = "Timeout";
+
+	@Parameter(
+		names = PARAMETER_MAX_FAILURES,
+		description = "number of failed scenarios after which no further scenarios are dispatched; " +
+			"must be greater than zero",
+		validateValueWith = GreaterThanZeroValidator.class
+	)
+	protected Integer maxFailures;
+
+	@Parameter(
+		names = PARAMETER_FAIL_FAST,
+		description = "stop dispatching scenarios after the first failure; same as " + PARAMETER_MAX_FAILURES + " 1")
+	protected boolean failFast = false;
+
+	@Parameter(
+		names = PARAMETER_MAX_FAILURE_RATE,
+		description = "fraction of the last " + PARAMETER_FAILURE_RATE_WINDOW + " scenarios which may fail " +
+			"before no further scenarios are dispatched, e.g. 0.8",
+		validateValueWith = FractionValidator.class
+	)
+	protected Double maxFailureRate;
+
+	@Parameter(
+		names = PARAMETER_FAILURE_RATE_WINDOW,
+		description = "number of most recent scenario results evaluated against " + PARAMETER_MAX_FAILURE_RATE,
+		validateValueWith = GreaterThanZeroValidator.class
+	)
+	protected int failureRateWindow = 20;
+
+	@Parameter(
+		names = PARAMETER_CANCEL_ON_HALT,
+		description = "interrupt in-flight scenarios when a failure limit halts dispatch instead of letting them finish")
+	protected boolean cancelOnHalt = false;
+
+	@Parameter(
+		names = PARAMETER_MAX_ATTEMPTS,
+		description = "number of times a failing scenario is executed before its failure stands; retries are " +
+			"scheduled after first attempts",
+		validateValueWith = GreaterThanZeroValidator.class
+	)
+	protected int maxAttempts = 1;
+
+	@Parameter(
+		names = PARAMETER_AFFINITY,
+		description = "prefer giving a worker thread the next scenario of the feature it last executed")
+	protected boolean affinity = false;
+
+	@Parameter(
+		names = PARAMETER_AFFINITY_EXPRESSION,
+		description = "SpEL expression evaluated against each scenario yielding its affinity key; implies " +
+			PARAMETER_AFFINITY
+	)
+	protected String affinityExpression;
+
 	@Parameter(
 		names = PARAMETER_JOB_POOL_POLL_INTERVAL_MS,
 		description = "number of milliseconds between queued job check of Fork Join Pool",
@@ -122,6 +355,13 @@ public class CommandLineOptions implements Options {
 	)
 	protected long jobPoolPollIntervalMs = (long) 250;
 
+	@Parameter(
+		names = PARAMETER_DISPATCH_MODE,
+		description = "POLL to check the Fork Join Pool for queued jobs at a fixed interval, " +
+			"EVENT to dispatch as soon as a scenario completes"
+	)
+	protected DispatchMode dispatchMode = DispatchMode.POLL;
+
 	@Parameter(
 		names = PARAMETER_GATE_MONITOR_POLL_TIMEOUT_MS,
 		description = "number of milliseconds to wait for the gate monitor",
@@ -137,6 +377,56 @@ public class CommandLineOptions implements Options {
 	)
 	Class<? extends Comparator<Martini>> martiniComparatorImplementation = DefaultMartiniComparator.class;
 
+	@Parameter(
+		names = PARAMETER_DURATION_HISTORY_FILE,
+		description = "JSON or binary output of previous runs supplying scenario durations, " +
+			"e.g. for HistoricalDurationMartiniComparator"
+	)
+	protected List<File> durationHistoryFiles = Lists.newArrayList();
+
+	@Parameter(
+		names = PARAMETER_COORDINATOR_PORT,
+		description = "loopback port on which to hand out scenarios to workers started with " + PARAMETER_PULL_FROM,
+		validateValueWith = GreaterThanZeroValidator.class
+	)
+	protected Integer coordinatorPort;
+
+	@Parameter(
+		names = PARAMETER_PULL_FROM,
+		description = "host:port of a coordinator started with " + PARAMETER_COORDINATOR_PORT +
+			" from which to pull scenarios instead of selecting them locally"
+	)
+	protected String pullFrom;
+
+	@Parameter(
+		names = PARAMETER_COORDINATOR_CONNECT_TIMEOUT_SECONDS,
+		description = "number of seconds a worker retries connecting to its coordinator; must be greater than zero",
+		validateValueWith = GreaterThanZeroValidator.class
+	)
+	protected long coordinatorConnectTimeoutSeconds = 60;
+
+	@Parameter(
+		names = PARAMETER_FORK_COUNT,
+		description = "number of worker JVMs to fork and dispatch scenarios to, e.g. for step code that is not " +
+			"thread-safe; zero to execute scenarios in this JVM",
+		validateValueWith = NonNegativeValidator.class
+	)
+	protected int forkCount = 0;
+
+	@Parameter(
+		names = PARAMETER_FORK_JVM_ARGS,
+		description = "JVM argument for forked workers, e.g. -Xmx512m; repeat to pass several arguments",
+		splitter = NoSplitter.class
+	)
+	protected List<String> forkJvmArgs = Lists.newArrayList();
+
+	@Parameter(
+		names = PARAMETER_FORWARD_RESULTS,
+		description = "true to forward serialized results to the coordinator instead of writing them locally",
+		hidden = true
+	)
+	protected boolean forwardResults = false;
+
 	@Parameter(
 		names = PARAMETER_ENGINE_IMPL,
 		arity = 1,
@@ -196,17 +486,95 @@ public class CommandLineOptions implements Options {
 		return Optional.ofNullable(timeoutInMinutes);
 	}
 
+	@Override
+	public Optional<Long> getScenarioTimeoutSeconds() {
+		return Optional.ofNullable(scenarioTimeoutSeconds);
+	}
+
+	@Nonnull
+	@Override
+	public String getScenarioTimeoutTag() {
+		return scenarioTimeoutTag;
+	}
+
+	@Override
+	public Optional<Integer> getMaxFailures() {
+		return Optional.ofNullable(maxFailures);
+	}
+
+	@Override
+	public boolean isFailFast() {
+		return failFast;
+	}
+
+	@Override
+	public Optional<Double> getMaxFailureRate() {
+		return Optional.ofNullable(maxFailureRate);
+	}
+
+	@Override
+	public int getFailureRateWindow() {
+		return failureRateWindow;
+	}
+
+	@Override
+	public boolean isCancelOnHalt() {
+		return cancelOnHalt;
+	}
+
+	@Override
+	public int getMaxAttempts() {
+		return maxAttempts;
+	}
+
+	@Override
+	public boolean isAffinity() {
+		return affinity || null != affinityExpression;
+	}
+
+	@Override
+	public Optional<String> getAffinityExpression() {
+		return Optional.ofNullable(affinityExpression);
+	}
+
 	@Override
 	public Optional<String> getSpelFilter() {
 		String joined = null == spelFilter ? "" : Joiner.on(' ').skipNulls().join(spelFilter).trim();
 		return Optional.ofNullable(joined.isEmpty() ? null : joined);
 	}
 
+	@Override
+	public Optional<SpelCompilerMode> getSpelCompilerMode() {
+		return Optional.ofNullable(spelCompilerMode);
+	}
+
+	@Override
+	public int getShardIndex() {
+		return shardIndex;
+	}
+
+	@Override
+	public int getShardCount() {
+		return shardCount;
+	}
+
+	@Nonnull
+	@Override
+	public List<File> getShardBalanceFiles() {
+		return null == shardBalanceFiles ? Lists.newArrayList() : Lists.newArrayList(shardBalanceFiles);
+	}
+
 	@Override
 	public long getJobPoolPollIntervalMs() {
 		return jobPoolPollIntervalMs;
 	}
 
+	@Nonnull
+	@Override
+	public DispatchMode getDispatchMode() {
+		return dispatchMode;
+	}
+
 	@Override
 	public Optional<File> getJsonOutputFile() {
 		return Optional.ofNullable(jsonOutputFile);
@@ -217,6 +585,17 @@ public class CommandLineOptions implements Options {
 		return parallelism;
 	}
 
+	@Nonnull
+	@Override
+	public ExecutorType getExecutorType() {
+		return executorType;
+	}
+
+	@Override
+	public int getMaxConcurrency() {
+		return maxConcurrency;
+	}
+
 	@Override
 	public Optional<Long> getAwaitTerminationSeconds() {
 		return Optional.ofNullable(awaitTerminationSeconds);
@@ -227,16 +606,123 @@ public class CommandLineOptions implements Options {
 		return jsonOverwrite;
 	}
 
+	@Override
+	public Optional<File> getBinaryOutputFile() {
+		return Optional.ofNullable(binaryOutputFile);
+	}
+
+	@Override
+	public Optional<File> getLatencyOutputFile() {
+		return Optional.ofNullable(latencyOutputFile);
+	}
+
+	@Override
+	public Optional<File> getJournalFile() {
+		return Optional.ofNullable(journalFile);
+	}
+
+	@Override
+	public int getJournalSyncInterval() {
+		return journalSyncInterval;
+	}
+
+	@Override
+	public Optional<File> getResumeFrom() {
+		return Optional.ofNullable(resumeFrom);
+	}
+
+	@Override
+	public Optional<File> getRerunFailedFrom() {
+		return Optional.ofNullable(rerunFailedFrom);
+	}
+
+	@Override
+	public boolean isJsonOutputCompact() {
+		return jsonCompact;
+	}
+
+	@Override
+	public Optional<Compression> getJsonCompression() {
+		return Optional.ofNullable(jsonCompression);
+	}
+
+	@Override
+	public boolean isJsonOutputAsync() {
+		return jsonAsync;
+	}
+
+	@Override
+	public int getJsonBufferCapacity() {
+		return jsonBufferCapacity;
+	}
+
+	@Override
+	public int getJsonBatchSize() {
+		return jsonBatchSize;
+	}
+
+	@Override
+	public long getJsonFlushIntervalMs() {
+		return jsonFlushIntervalMs;
+	}
+
 	@Nonnull
 	@Override
 	public Class<? extends Comparator<Martini>> getMartiniComparatorImplementation() {
 		return martiniComparatorImplementation;
 	}
 
+	@Nonnull
+	@Override
+	public List<File> getDurationHistoryFiles() {
+		return null == durationHistoryFiles ? Lists.newArrayList() : Lists.newArrayList(durationHistoryFiles);
+	}
+
+	@Override
+	public Optional<Integer> getCoordinatorPort() {
+		return Optional.ofNullable(coordinatorPort);
+	}
+
+	@Override
+	public Optional<HostAndPort> getPullFrom() {
+		return Optional.ofNullable(pullFrom).map(HostAndPort::fromString);
+	}
+
+	@Override
+	public long getCoordinatorConnectTimeoutSeconds() {
+		return coordinatorConnectTimeoutSeconds;
+	}
+
+	@Override
+	public int getForkCount() {
+		return forkCount;
+	}
+
+	@Nonnull
+	@Override
+	public List<String> getForkJvmArgs() {
+		return null == forkJvmArgs ? Lists.newArrayList() : Lists.newArrayList(forkJvmArgs);
+	}
+
+	@Override
+	public boolean isForwardResults() {
+		return forwardResults;
+	}
+
 	@Nonnull
 	@Override
 	public Class<? extends MartiniStandaloneEngine> getEngineImplementation() {
-		return engineImplementation;
+		Class<? extends MartiniStandaloneEngine> implementation = engineImplementation;
+		if (DefaultMartiniStandaloneEngine.class.equals(implementation) && 0 < forkCount) {
+			implementation = ForkingMartiniStandaloneEngine.class;
+		}
+		else if (DefaultMartiniStandaloneEngine.class.equals(implementation) && getCoordinatorPort().isPresent()) {
+			implementation = CoordinatorMartiniStandaloneEngine.class;
+		}
+		else if (DefaultMartiniStandaloneEngine.class.equals(implementation) && getPullFrom().isPresent()) {
+			implementation = WorkerMartiniStandaloneEngine.class;
+		}
+		return implementation;
 	}
 
 	@Nonnull
@@ -0,0 +1,36 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package guru.qas.martini.standalone.jcommander;
+
+import com.beust.jcommander.IValueValidator;
+import com.beust.jcommander.ParameterException;
+
+import exception.MartiniException;
+
+import static guru.qas.martini.standalone.jcommander.FractionValidatorMessages.*;
+
+public class FractionValidator implements IValueValidator<Number> {
+
+	@Override
+	public void validate(String s, Number number) throws ParameterException {
+		double value = number.doubleValue();
+		if (!(0 < value && value <= 1)) {
+			MartiniException cause = new MartiniException(INVALID_PARAMETER, s, number);
+			throw new ParameterException(cause);
+		}
+	}
+}
@@ -0,0 +1,94 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package guru.qas.martini.spring.standalone.configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.SkipException;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.beust.jcommander.JCommander;
+
+import guru.qas.martini.standalone.harness.ExecutorType;
+import guru.qas.martini.standalone.jcommander.CommandLineOptions;
+
+import static com.google.common.base.Preconditions.checkState;
+import static guru.qas.martini.standalone.jcommander.CommandLineOptions.PARAMETER_EXECUTOR;
+
+@SuppressWarnings("WeakerAccess")
+public class ExecutorServiceConfigurationTest {
+
+	protected ForkJoinPool forkJoinPool;
+	protected ExecutorServiceConfiguration configuration;
+
+	@BeforeMethod
+	public void setUp() {
+		forkJoinPool = new ForkJoinPool(2);
+	}
+
+	@AfterMethod
+	public void tearDown() throws InterruptedException {
+		if (null != configuration) {
+			configuration.destroy();
+		}
+		forkJoinPool.shutdownNow();
+	}
+
+	@Test
+	public void testForkJoinExecutorIsPool() {
+		ExecutorService executorService = getExecutorService(ExecutorType.FORKJOIN);
+		checkState(forkJoinPool == executorService, "FORKJOIN executor should be the Fork Join Pool");
+	}
+
+	@Test
+	public void testPlatformFallbackWithoutVirtualThreads() throws Exception {
+		if (19 <= Runtime.version().feature()) {
+			throw new SkipException("virtual threads may be available in Java " + Runtime.version());
+		}
+		ExecutorService executorService = getExecutorService(ExecutorType.VIRTUAL);
+		Thread thread = executorService.submit(Thread::currentThread).get(5, TimeUnit.SECONDS);
+
+		checkState(forkJoinPool != executorService, "VIRTUAL executor should not be the Fork Join Pool");
+		checkState(thread.getName().startsWith("martini-"), "fallback thread not named: %s", thread.getName());
+		checkState(thread.isDaemon(), "fallback thread should be a daemon");
+		checkState(!configuration.getVirtualThreadPerTaskExecutor().isPresent(), "virtual threads reported available");
+	}
+
+	@Test
+	public void testVirtualThreadsWhenAvailable() throws Exception {
+		if (Runtime.version().feature() < 21) {
+			throw new SkipException("virtual threads unavailable in Java " + Runtime.version());
+		}
+		ExecutorService executorService = getExecutorService(ExecutorType.VIRTUAL);
+		Thread thread = executorService.submit(Thread::currentThread).get(5, TimeUnit.SECONDS);
+
+		boolean virtual = (Boolean) Thread.class.getMethod("isVirtual").invoke(thread);
+		checkState(virtual, "VIRTUAL executor ran on platform thread %s", thread);
+	}
+
+	protected ExecutorService getExecutorService(ExecutorType executorType) {
+		CommandLineOptions options = new CommandLineOptions();
+		String[] arguments = {PARAMETER_EXECUTOR, executorType.name()};
+		JCommander.newBuilder().addObject(options).build().parse(arguments);
+		configuration = new ExecutorServiceConfiguration(options, (thread, throwable) -> {
+		});
+		return configuration.getExecutorService(forkJoinPool);
+	}
+}
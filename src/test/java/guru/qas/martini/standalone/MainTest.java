@@ -20,19 +20,30 @@ import java.io.File;
 import java.io.IOException;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.expression.MethodResolver;
+import org.springframework.expression.PropertyAccessor;
+import org.springframework.expression.spel.SpelCompilerMode;
 import org.testng.annotations.Test;
 
 import com.beust.jcommander.JCommander;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Multimap;
 
+import guru.qas.martini.Martini;
+import guru.qas.martini.Mixologist;
 import guru.qas.martini.standalone.harness.Options;
+import guru.qas.martini.standalone.harness.SpelMartiniFilter;
 import guru.qas.martini.standalone.jcommander.CommandLineOptions;
+import guru.qas.martini.standalone.test.spring.IdEndingResolver;
 import guru.qas.martini.standalone.test.spring.TestListener;
 
 import static com.google.common.base.Preconditions.*;
@@ -79,6 +90,42 @@ public class MainTest {
 		checkArgument(joined.equals(spelFilter), "wrong spelFilter; expected %s but found %s", joined, spelFilter);
 	}
 
+	@Test
+	public void testSpelMartiniFilterMatchesMixologist() throws Exception {
+		String[] argv = new String[]{"-configLocations", "classpath*:**/applicationContext.xml"};
+		Main application = getApplication(argv);
+
+		try (ConfigurableApplicationContext context = application.getApplicationContext()) {
+			Mixologist mixologist = context.getBean(Mixologist.class);
+			Collection<Martini> martinis = mixologist.getMartinis();
+			List<String> filters = ImmutableList.of(
+				"id.endsWith('e')",
+				"id.contains('Seven') or !id.contains('e')",
+				IdEndingResolver.METHOD + "('n')");
+
+			for (String filter : filters) {
+				Set<String> expected = getIds(mixologist.getMartinis(filter));
+				checkState(!expected.isEmpty(), "Mixologist selected no Martinis for %s", filter);
+
+				for (SpelCompilerMode mode : SpelCompilerMode.values()) {
+					SpelMartiniFilter martiniFilter = new SpelMartiniFilter(
+						filter,
+						mode,
+						context.getAutowireCapableBeanFactory(),
+						context.getBeansOfType(MethodResolver.class).values(),
+						context.getBeansOfType(PropertyAccessor.class).values());
+					Set<String> actual = getIds(martiniFilter.select(martinis, ForkJoinPool.commonPool()));
+					checkState(expected.equals(actual), "%s %s selected %s but Mixologist selected %s",
+						mode, filter, actual, expected);
+				}
+			}
+		}
+	}
+
+	protected Set<String> getIds(Collection<Martini> martinis) {
+		return martinis.stream().map(Martini::getId).collect(Collectors.toSet());
+	}
+
 	@Test
 	public void testMultiThreaded() throws Exception {
 		Multimap<String, String> executionIndex = executeWithParallelism(10);
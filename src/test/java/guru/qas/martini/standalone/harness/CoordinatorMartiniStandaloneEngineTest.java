@@ -0,0 +1,287 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package guru.qas.martini.standalone.harness;
+
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.support.GenericApplicationContext;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.beust.jcommander.JCommander;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+import guru.qas.martini.Martini;
+import guru.qas.martini.gate.MartiniGate;
+import guru.qas.martini.standalone.TestMartiniGate;
+import guru.qas.martini.standalone.jcommander.CommandLineOptions;
+
+import static com.google.common.base.Preconditions.checkState;
+import static guru.qas.martini.standalone.jcommander.CommandLineOptions.*;
+
+@SuppressWarnings("WeakerAccess")
+public class CoordinatorMartiniStandaloneEngineTest {
+
+	protected int port;
+	protected GenericApplicationContext context;
+	protected ExecutorService executor;
+	protected CoordinatorMartiniStandaloneEngine engine;
+	protected List<Martini> martinis;
+	protected List<RemoteResultEvent> forwarded;
+
+	@BeforeMethod
+	public void setUp() throws Exception {
+		try (ServerSocket socket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+			port = socket.getLocalPort();
+		}
+
+		forwarded = new CopyOnWriteArrayList<>();
+		context = new GenericApplicationContext();
+		context.addApplicationListener((ApplicationListener<RemoteResultEvent>) forwarded::add);
+		context.refresh();
+		executor = Executors.newCachedThreadPool();
+		engine = getEngine();
+
+		Collection<MartiniGate> gate = Collections.singleton(new SharedGate());
+		martinis = ImmutableList.of(
+			new MartiniIteratorTest.GatedMartini("one", gate),
+			new MartiniIteratorTest.GatedMartini("two", gate));
+	}
+
+	protected CoordinatorMartiniStandaloneEngine getEngine(String... arguments) throws Exception {
+		CommandLineOptions options = new CommandLineOptions();
+		List<String> parameters = new ArrayList<>(ImmutableList.of(
+			PARAMETER_COORDINATOR_PORT, String.valueOf(port),
+			PARAMETER_GATE_MONITOR_POLL_TIMEOUT_MS, "50"));
+		parameters.addAll(Arrays.asList(arguments));
+		JCommander.newBuilder().addObject(options).build().parse(parameters.toArray(new String[0]));
+
+		ForkJoinPool forkJoinPool = ForkJoinPool.commonPool();
+		CoordinatorMartiniStandaloneEngine engine = new CoordinatorMartiniStandaloneEngine(
+			options, null, null, new DefaultMartiniComparator(), null, null, forkJoinPool, forkJoinPool);
+		engine.setApplicationContext(context);
+		engine.afterPropertiesSet();
+		return engine;
+	}
+
+	@AfterMethod
+	public void tearDown() {
+		executor.shutdownNow();
+		context.close();
+	}
+
+	@Test
+	public void testGatesEnforcedAcrossWorkers() throws Exception {
+		Future<?> coordinator = executor.submit(engine.getRunnable(martinis));
+
+		try (CoordinatorConnection first = connect(); CoordinatorConnection second = connect()) {
+			String firstId = first.next().orElseThrow(IllegalStateException::new);
+			Future<Optional<String>> blocked = executor.submit(second::next);
+			checkState(isBlocked(blocked), "gated Martini handed out while gate full");
+
+			first.complete(firstId);
+			String secondId = blocked.get(5, TimeUnit.SECONDS).orElseThrow(IllegalStateException::new);
+			checkState(!firstId.equals(secondId), "Martini handed out twice");
+
+			second.complete(secondId);
+			checkState(!first.next().isPresent(), "coordinator should report no remaining Martinis");
+		}
+		coordinator.get(5, TimeUnit.SECONDS);
+	}
+
+	@Test
+	public void testDisconnectedWorkerReleasesGatesAndRequeues() throws Exception {
+		Future<?> coordinator = executor.submit(engine.getRunnable(martinis));
+
+		try (CoordinatorConnection survivor = connect()) {
+			CoordinatorConnection lost = connect();
+			String lostId = lost.next().orElseThrow(IllegalStateException::new);
+			Future<Optional<String>> blocked = executor.submit(survivor::next);
+			checkState(isBlocked(blocked), "gated Martini handed out while gate full");
+
+			lost.close();
+			String id = blocked.get(5, TimeUnit.SECONDS).orElseThrow(IllegalStateException::new);
+			checkState(lostId.equals(id), "lost Martini should be requeued ahead of remaining Martinis");
+			survivor.complete(id);
+
+			String remaining = survivor.next().orElseThrow(IllegalStateException::new);
+			checkState(!lostId.equals(remaining), "lost Martini handed out again");
+			survivor.complete(remaining);
+			checkState(!survivor.next().isPresent(), "coordinator should report no remaining Martinis");
+		}
+		coordinator.get(5, TimeUnit.SECONDS);
+	}
+
+	@Test
+	public void testForwardedResultsPublished() throws Exception {
+		Future<?> coordinator = executor.submit(engine.getRunnable(martinis));
+
+		try (CoordinatorConnection worker = connect()) {
+			String id;
+			while (null != (id = worker.next().orElse(null))) {
+				worker.result("{\"feature\":{\"name\":\"Feature\"},\"result\":{\"id\":\"" + id + "\"}}");
+				worker.complete(id);
+			}
+		}
+		coordinator.get(5, TimeUnit.SECONDS);
+
+		checkState(2 == forwarded.size(), "wrong number of forwarded results published: %s", forwarded.size());
+		checkState(forwarded.stream().allMatch(event -> event.getFeature().isPresent()), "forwarded feature not published");
+		Set<String> ids = forwarded.stream()
+			.map(event -> event.getResult().get("id").getAsString())
+			.collect(Collectors.toSet());
+		checkState(ImmutableSet.of("one", "two").equals(ids), "wrong results published: %s", ids);
+	}
+
+	@Test
+	public void testForwardedFailureRetried() throws Exception {
+		engine = getEngine(PARAMETER_MAX_ATTEMPTS, "2");
+		Future<?> coordinator = executor.submit(engine.getRunnable(martinis));
+
+		List<String> executed = new ArrayList<>();
+		try (CoordinatorConnection worker = connect()) {
+			String id;
+			while (null != (id = worker.next().orElse(null))) {
+				executed.add(id);
+				String status = "one".equals(id) ? "FAILED" : "PASSED";
+				worker.result("{\"result\":{\"id\":\"" + id + "\",\"status\":\"" + status + "\"}}");
+				worker.complete(id);
+			}
+		}
+		coordinator.get(5, TimeUnit.SECONDS);
+
+		checkState(ImmutableList.of("one", "two", "one").equals(executed), "wrong executions: %s", executed);
+	}
+
+	@Test
+	public void testOnlyFinalAttemptCharged() throws Exception {
+		engine = getEngine(PARAMETER_MAX_ATTEMPTS, "2");
+		FailureBudget budget = new FailureBudget(2, null, 1);
+		engine.setFailureBudget(budget);
+		Future<?> coordinator = executor.submit(engine.getRunnable(martinis));
+
+		List<String> executed = new ArrayList<>();
+		try (CoordinatorConnection worker = connect()) {
+			String id;
+			while (null != (id = worker.next().orElse(null))) {
+				String status = "one".equals(id) && executed.contains(id) ? "PASSED" : "FAILED";
+				executed.add(id);
+				worker.result("{\"result\":{\"id\":\"" + id + "\",\"status\":\"" + status + "\"}}");
+				worker.complete(id);
+			}
+		}
+		coordinator.get(5, TimeUnit.SECONDS);
+
+		checkState(ImmutableList.of("one", "two", "one", "two").equals(executed), "wrong executions: %s", executed);
+		checkState(1 == budget.getFailureCount(), "only the final failed attempt should be charged: %s",
+			budget.getFailureCount());
+	}
+
+	@Test
+	public void testTimedOutRetriedAndCharged() throws Exception {
+		engine = getEngine(PARAMETER_MAX_ATTEMPTS, "2");
+		FailureBudget budget = new FailureBudget(2, null, 1);
+		engine.setFailureBudget(budget);
+		Future<?> coordinator = executor.submit(engine.getRunnable(martinis));
+
+		List<String> executed = new ArrayList<>();
+		try (CoordinatorConnection worker = connect()) {
+			String id;
+			while (null != (id = worker.next().orElse(null))) {
+				executed.add(id);
+				if ("one".equals(id)) {
+					worker.timedOut(id);
+				}
+				else {
+					worker.complete(id);
+				}
+			}
+		}
+		coordinator.get(5, TimeUnit.SECONDS);
+
+		checkState(ImmutableList.of("one", "two", "one").equals(executed), "wrong executions: %s", executed);
+		checkState(1 == budget.getFailureCount(), "final timed out attempt should be charged: %s",
+			budget.getFailureCount());
+	}
+
+	protected boolean isBlocked(Future<?> future) throws Exception {
+		try {
+			future.get(200, TimeUnit.MILLISECONDS);
+			return false;
+		}
+		catch (TimeoutException e) {
+			return true;
+		}
+	}
+
+	protected CoordinatorConnection connect() throws Exception {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (true) {
+			try {
+				return new CoordinatorConnection(new Socket(InetAddress.getLoopbackAddress(), port));
+			}
+			catch (ConnectException e) {
+				checkState(System.currentTimeMillis() < deadline, "coordinator not listening on %s", port);
+				Thread.sleep(20);
+			}
+		}
+	}
+
+	protected static class SharedGate implements TestMartiniGate {
+
+		protected int entered;
+
+		@Override
+		public synchronized int getPermits() {
+			return 1;
+		}
+
+		@Override
+		public synchronized boolean enter() {
+			boolean available = 0 == entered;
+			entered += available ? 1 : 0;
+			return available;
+		}
+
+		@Override
+		public synchronized void leave() {
+			checkState(0 < entered, "gate left more often than entered");
+			entered--;
+		}
+	}
+}
@@ -118,6 +118,20 @@ public class DefaultMartiniComparatorTest {
 		checkState(expected.equals(martinis), "wrong sort returned");
 	}
 
+	@Test
+	public void testDuplicateGatesCountedOnce() {
+		MartiniGate shared = new ComparableMartiniGate(4);
+		Martini one = new ComparableMartini(ImmutableList.of(shared, shared));
+		Martini two = new ComparableMartini(
+			ImmutableList.of(new ComparableMartiniGate(4), new ComparableMartiniGate(4)));
+
+		ArrayList<Martini> martinis = Lists.newArrayList(one, two);
+		martinis.sort(comparator);
+
+		ArrayList<Martini> expected = Lists.newArrayList(two, one);
+		checkState(expected.equals(martinis), "wrong sort returned");
+	}
+
 	@AfterClass
 	public void tearDown() {
 		comparator = null;
@@ -0,0 +1,371 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package guru.qas.martini.standalone.harness;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.io.FileSystemResource;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.beust.jcommander.JCommander;
+import com.google.common.collect.ImmutableList;
+import com.google.common.reflect.Reflection;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+
+import exception.MartiniException;
+import guru.qas.martini.Martini;
+import guru.qas.martini.Mixologist;
+import guru.qas.martini.event.AfterSuiteEvent;
+import guru.qas.martini.gate.MartiniGate;
+import guru.qas.martini.spring.standalone.BinarySuiteMarshaller;
+import guru.qas.martini.spring.standalone.JsonSuiteMarshaller;
+import guru.qas.martini.standalone.io.CompletionJournal;
+import guru.qas.martini.standalone.jcommander.CommandLineOptions;
+
+import static com.google.common.base.Preconditions.checkState;
+import static guru.qas.martini.standalone.jcommander.CommandLineOptions.*;
+
+@SuppressWarnings("WeakerAccess")
+public class DefaultMartiniStandaloneEngineTest {
+
+	protected GenericApplicationContext context;
+	protected ForkJoinPool forkJoinPool;
+
+	@BeforeMethod
+	public void setUp() {
+		context = new GenericApplicationContext();
+		context.refresh();
+		forkJoinPool = new ForkJoinPool(8);
+	}
+
+	@AfterMethod
+	public void tearDown() throws InterruptedException {
+		context.close();
+		forkJoinPool.shutdownNow();
+		forkJoinPool.awaitTermination(5, TimeUnit.SECONDS);
+	}
+
+	@Test
+	public void testPollDispatchHonorsMaxConcurrency() throws Exception {
+		AtomicInteger running = new AtomicInteger();
+		AtomicInteger peak = new AtomicInteger();
+		AtomicInteger executed = new AtomicInteger();
+		TaskFactory taskFactory = i -> () -> {
+			Martini martini = i.hasNext() ? i.next().orElse(null) : null;
+			if (null != martini) {
+				peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+				try {
+					Thread.sleep(10);
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				finally {
+					running.decrementAndGet();
+					executed.incrementAndGet();
+				}
+			}
+		};
+
+		DefaultMartiniStandaloneEngine engine = getEngine(taskFactory,
+			PARAMETER_MAX_CONCURRENCY, "2", PARAMETER_JOB_POOL_POLL_INTERVAL_MS, "1");
+		List<Martini> martinis = new ArrayList<>();
+		for (int index = 0; index < 20; index++) {
+			martinis.add(new MartiniIteratorTest.GatedMartini("martini " + index, Collections.emptyList()));
+		}
+		engine.getRunnable(martinis).run();
+
+		checkState(20 == executed.get(), "wrong number of Martinis executed: %s", executed.get());
+		checkState(peak.get() <= 2, "POLL dispatch exceeded maximum concurrency: %s", peak.get());
+	}
+
+	@Test
+	public void testEventDispatchOrderMatchesPoll() throws Exception {
+		List<Martini> martinis = getPopulation();
+
+		List<String> polled = new CopyOnWriteArrayList<>();
+		getEngine(getRecordingTaskFactory(polled, true),
+			PARAMETER_DISPATCH_MODE, DispatchMode.POLL.name(),
+			PARAMETER_MAX_CONCURRENCY, "1",
+			PARAMETER_JOB_POOL_POLL_INTERVAL_MS, "1"
+		).getRunnable(martinis).run();
+
+		List<String> evented = new CopyOnWriteArrayList<>();
+		getEngine(getRecordingTaskFactory(evented, true),
+			PARAMETER_DISPATCH_MODE, DispatchMode.EVENT.name(),
+			PARAMETER_MAX_CONCURRENCY, "1"
+		).getRunnable(martinis).run();
+
+		checkState(martinis.size() == polled.size(), "POLL dispatch executed %s", polled);
+		checkState(polled.equals(evented), "EVENT order %s differs from POLL order %s", evented, polled);
+	}
+
+	@Test(expectedExceptions = MartiniException.class)
+	public void testStalledGateRaisesDispatchStalled() throws Exception {
+		MartiniGate gate = new GateCoordinatorTest.NamedGate("stalled", 1, new CopyOnWriteArrayList<>());
+		List<Martini> martinis = ImmutableList.of(
+			new MartiniIteratorTest.GatedMartini("one", Collections.singleton(gate)),
+			new MartiniIteratorTest.GatedMartini("two", Collections.singleton(gate)));
+
+		getEngine(getRecordingTaskFactory(new CopyOnWriteArrayList<>(), false),
+			PARAMETER_DISPATCH_MODE, DispatchMode.EVENT.name()
+		).getRunnable(martinis).run();
+	}
+
+	@Test(timeOut = 10000)
+	public void testCompletionsWakeDispatcher() throws Exception {
+		List<Martini> martinis = getPopulation();
+		List<String> executed = new CopyOnWriteArrayList<>();
+		DefaultMartiniStandaloneEngine engine = getEngine(getRecordingTaskFactory(executed, true),
+			PARAMETER_DISPATCH_MODE, DispatchMode.EVENT.name(),
+			PARAMETER_MAX_CONCURRENCY, "1",
+			PARAMETER_GATE_MONITOR_POLL_TIMEOUT_MS, "60000");
+
+		long start = System.nanoTime();
+		engine.getRunnable(martinis).run();
+		long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+		checkState(martinis.size() == executed.size(), "EVENT dispatch executed %s", executed);
+		checkState(elapsedMs < 5000, "dispatcher waited for poll timeout instead of completions: %s ms", elapsedMs);
+	}
+
+	@Test
+	public void testVirtualExecutorForcesEventDispatch() throws Exception {
+		ExecutorService executorService = Executors.newCachedThreadPool(
+			new ThreadFactoryBuilder().setNameFormat("thread-per-task-%d").setDaemon(true).build());
+		try {
+			List<String> threads = new CopyOnWriteArrayList<>();
+			TaskFactory taskFactory = i -> () -> {
+				Martini martini = i.hasNext() ? i.next().orElse(null) : null;
+				if (null != martini) {
+					threads.add(Thread.currentThread().getName());
+					((GatedIterator) i).release(martini);
+				}
+			};
+			getEngine(taskFactory, executorService,
+				PARAMETER_EXECUTOR, ExecutorType.VIRTUAL.name(),
+				PARAMETER_DISPATCH_MODE, DispatchMode.POLL.name()
+			).getRunnable(getPopulation()).run();
+
+			checkState(12 == threads.size(), "wrong number of Martinis executed: %s", threads);
+			checkState(threads.stream().allMatch(name -> name.startsWith("thread-per-task-")),
+				"-executor VIRTUAL should dispatch through the thread-per-task executor: %s", threads);
+		}
+		finally {
+			executorService.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testRerunFromJsonSelectsLastFailed() throws Exception {
+		testSelection(PARAMETER_RERUN_FAILED_FROM, ".json", this::writeJson, "two", "four");
+	}
+
+	@Test
+	public void testRerunFromBinarySelectsLastFailed() throws Exception {
+		testSelection(PARAMETER_RERUN_FAILED_FROM, ".bin", this::writeBinary, "two", "four");
+	}
+
+	@Test
+	public void testRerunFromJournalSelectsLastFailed() throws Exception {
+		testSelection(PARAMETER_RERUN_FAILED_FROM, ".journal", this::writeJournal, "two", "four");
+	}
+
+	@Test
+	public void testResumeFromJsonSkipsLastCompleted() throws Exception {
+		testSelection(PARAMETER_RESUME_FROM, ".json", this::writeJson, "three", "five", "six");
+	}
+
+	@Test
+	public void testResumeFromBinarySkipsLastCompleted() throws Exception {
+		testSelection(PARAMETER_RESUME_FROM, ".bin", this::writeBinary, "three", "five", "six");
+	}
+
+	@Test
+	public void testResumeFromJournalSkipsLastCompleted() throws Exception {
+		testSelection(PARAMETER_RESUME_FROM, ".journal", this::writeJournal, "three", "five", "six");
+	}
+
+	protected void testSelection(String parameter, String suffix, ResultWriter writer, String... expected)
+		throws Exception {
+		Map<String, Martini> index = new LinkedHashMap<>();
+		for (String id : ImmutableList.of("one", "two", "three", "four", "five", "six")) {
+			index.put(id, new MartiniIteratorTest.GatedMartini(id, Collections.emptyList()));
+		}
+
+		File file = File.createTempFile("results", suffix);
+		try {
+			Files.delete(file.toPath());
+			writer.write(file, index);
+			Mixologist mixologist = Reflection.newProxy(Mixologist.class, (proxy, method, arguments) -> {
+				checkState(null == arguments || 0 == arguments.length, "unexpected call to %s", method);
+				return new ArrayList<>(index.values());
+			});
+			DefaultMartiniStandaloneEngine engine =
+				getEngine(mixologist, null, forkJoinPool, parameter, file.getAbsolutePath());
+
+			List<String> selected = engine.getMartinis().stream().map(Martini::getId).collect(Collectors.toList());
+			List<String> expectedIds = ImmutableList.copyOf(expected);
+			checkState(expectedIds.equals(selected), "%s %s selected %s; expected %s",
+				parameter, suffix, selected, expectedIds);
+		}
+		finally {
+			Files.deleteIfExists(file.toPath());
+		}
+	}
+
+	protected List<String[]> getHistory() {
+		return ImmutableList.of(
+			new String[]{"one", "FAILED"},
+			new String[]{"two", "PASSED"},
+			new String[]{"three", "FAILED"},
+			new String[]{"four", "FAILED"},
+			new String[]{"one", "PASSED"},
+			new String[]{"two", "FAILED"},
+			new String[]{"three", ScenarioSkippedEvent.SKIPPED},
+			new String[]{"five", ScenarioSkippedEvent.SKIPPED});
+	}
+
+	protected void writeJson(File file, Map<String, Martini> index) throws Exception {
+		CommandLineOptions options = new CommandLineOptions();
+		JCommander.newBuilder().addObject(options).build().parse();
+		JsonSuiteMarshaller marshaller = new JsonSuiteMarshaller(
+			new FileSystemResource(file), null, null, null, null, null, null, options) {
+			@Override
+			public void afterPropertiesSet() throws Exception {
+				super.afterPropertiesSet();
+				jsonWriter.beginArray();
+				jsonWriter.beginObject().name("id").value("suite").endObject();
+			}
+
+			@Override
+			protected void registerTypeAdapters(GsonBuilder builder) {
+			}
+		};
+		marshaller.afterPropertiesSet();
+		publish(index, marshaller::handleRemoteResultEvent, marshaller::handleScenarioSkippedEvent);
+		marshaller.handle((AfterSuiteEvent) null);
+	}
+
+	protected void writeBinary(File file, Map<String, Martini> index) throws Exception {
+		BinarySuiteMarshaller marshaller = new BinarySuiteMarshaller(new FileSystemResource(file));
+		marshaller.afterPropertiesSet();
+		publish(index, marshaller::handleRemoteResultEvent, marshaller::handleScenarioSkippedEvent);
+		marshaller.handle((AfterSuiteEvent) null);
+	}
+
+	protected void writeJournal(File file, Map<String, Martini> index) throws Exception {
+		try (CompletionJournal journal = new CompletionJournal(file)) {
+			for (String[] entry : getHistory()) {
+				journal.append(entry[0], entry[1]);
+			}
+		}
+	}
+
+	protected void publish(
+		Map<String, Martini> index,
+		Consumer<RemoteResultEvent> results,
+		Consumer<ScenarioSkippedEvent> skips
+	) {
+		for (String[] entry : getHistory()) {
+			if (ScenarioSkippedEvent.SKIPPED.equals(entry[1])) {
+				skips.accept(new ScenarioSkippedEvent(this, index.get(entry[0]), "lost with disconnected worker"));
+			}
+			else {
+				JsonObject result = new JsonObject();
+				result.addProperty("id", entry[0]);
+				result.addProperty("status", entry[1]);
+				results.accept(new RemoteResultEvent(this, null, result));
+			}
+		}
+	}
+
+	protected DefaultMartiniStandaloneEngine getEngine(TaskFactory taskFactory, String... arguments) throws Exception {
+		return getEngine(taskFactory, forkJoinPool, arguments);
+	}
+
+	protected DefaultMartiniStandaloneEngine getEngine(
+		TaskFactory taskFactory,
+		ExecutorService executorService,
+		String... arguments
+	) throws Exception {
+		return getEngine(null, taskFactory, executorService, arguments);
+	}
+
+	protected DefaultMartiniStandaloneEngine getEngine(
+		Mixologist mixologist,
+		TaskFactory taskFactory,
+		ExecutorService executorService,
+		String... arguments
+	) throws Exception {
+		CommandLineOptions options = new CommandLineOptions();
+		JCommander.newBuilder().addObject(options).build().parse(arguments);
+		DefaultMartiniStandaloneEngine engine = new DefaultMartiniStandaloneEngine(
+			options, mixologist, null, new DefaultMartiniComparator(), taskFactory, null, forkJoinPool, executorService);
+		engine.setApplicationContext(context);
+		engine.afterPropertiesSet();
+		return engine;
+	}
+
+	protected TaskFactory getRecordingTaskFactory(List<String> executed, boolean release) {
+		return i -> () -> {
+			Martini martini = i.hasNext() ? i.next().orElse(null) : null;
+			if (null != martini) {
+				executed.add(martini.getId());
+				if (release) {
+					((GatedIterator) i).release(martini);
+				}
+			}
+		};
+	}
+
+	protected List<Martini> getPopulation() {
+		List<String> log = new CopyOnWriteArrayList<>();
+		MartiniGate narrow = new GateCoordinatorTest.NamedGate("narrow", 1, log);
+		MartiniGate wide = new GateCoordinatorTest.NamedGate("wide", 3, log);
+		List<Martini> martinis = new ArrayList<>();
+		for (int index = 0; index < 12; index++) {
+			List<MartiniGate> gates = 0 == index % 3 ? ImmutableList.of(narrow, wide) :
+				1 == index % 3 ? ImmutableList.of(wide) : ImmutableList.of();
+			martinis.add(new MartiniIteratorTest.GatedMartini("martini " + index, gates));
+		}
+		return martinis;
+	}
+
+	protected interface ResultWriter {
+
+		void write(File file, Map<String, Martini> index) throws Exception;
+	}
+}
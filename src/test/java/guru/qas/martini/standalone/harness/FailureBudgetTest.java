@@ -0,0 +1,75 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package guru.qas.martini.standalone.harness;
+
+import org.testng.annotations.Test;
+
+import static com.google.common.base.Preconditions.checkState;
+
+@SuppressWarnings("WeakerAccess")
+public class FailureBudgetTest {
+
+	@Test
+	public void testDisabledNeverExhausted() {
+		FailureBudget budget = new FailureBudget(null, null, 5);
+		for (int i = 0; i < 100; i++) {
+			budget.record(FailureBudget.FAILED);
+		}
+		checkState(!budget.isEnabled(), "budget should be disabled");
+		checkState(!budget.isExhausted(), "disabled budget exhausted");
+	}
+
+	@Test
+	public void testMaxFailures() {
+		FailureBudget budget = new FailureBudget(3, null, 5);
+		budget.record(FailureBudget.FAILED);
+		budget.record("PASSED");
+		budget.record(FailureBudget.FAILED);
+		budget.record("SKIPPED");
+		checkState(!budget.isExhausted(), "budget exhausted early");
+
+		budget.record(FailureBudget.FAILED);
+		checkState(budget.isExhausted(), "budget not exhausted at limit");
+		checkState(budget.getReason().orElse("").startsWith("3 of 5"), "wrong reason %s", budget.getReason());
+	}
+
+	@Test
+	public void testFailureRateWaitsForFullWindow() {
+		FailureBudget budget = new FailureBudget(null, 0.75, 4);
+		budget.record(true);
+		budget.record(true);
+		budget.record(true);
+		checkState(!budget.isExhausted(), "rate evaluated before window filled");
+
+		budget.record(false);
+		checkState(budget.isExhausted(), "rate breaker not tripped at threshold");
+	}
+
+	@Test
+	public void testFailureRateSlides() {
+		FailureBudget budget = new FailureBudget(null, 0.75, 4);
+		budget.record(false);
+		budget.record(false);
+		budget.record(false);
+		budget.record(true);
+		budget.record(true);
+		checkState(!budget.isExhausted(), "window should hold 2 of 4 failures");
+
+		budget.record(true);
+		checkState(budget.isExhausted(), "rate breaker not tripped once older results slid out");
+	}
+}
@@ -0,0 +1,148 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package guru.qas.martini.standalone.harness;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import guru.qas.martini.Martini;
+import guru.qas.martini.gate.MartiniGate;
+import guru.qas.martini.standalone.TestMartiniGate;
+
+import static com.google.common.base.Preconditions.checkState;
+
+@SuppressWarnings("WeakerAccess")
+public class GateCoordinatorTest {
+
+	@Test
+	public void testCanonicalOrder() {
+		List<String> log = new ArrayList<>();
+		NamedGate alpha = new NamedGate("alpha", 1, log);
+		NamedGate beta = new NamedGate("beta", 1, log);
+		NamedGate gamma = new NamedGate("gamma", 1, log);
+		Martini one = new MartiniIteratorTest.GatedMartini("one", ImmutableList.of(gamma, alpha));
+		Martini two = new MartiniIteratorTest.GatedMartini("two", ImmutableList.of(beta, gamma, alpha));
+		GateCoordinator coordinator = new GateCoordinator(ImmutableList.of(one, two));
+
+		MartiniGate[] gates = coordinator.getOrdered(two.getGates());
+		checkState(Arrays.equals(new MartiniGate[]{alpha, beta, gamma}, gates), "gates not in canonical order");
+
+		checkState(null == coordinator.acquire(gates), "free gates not acquired");
+		coordinator.release(gates);
+		checkState(ImmutableList.of("enter alpha", "enter beta", "enter gamma", "leave gamma", "leave beta", "leave alpha")
+			.equals(log), "unexpected gate sequence %s", log);
+	}
+
+	@Test
+	public void testAllOrNothing() {
+		List<String> log = new ArrayList<>();
+		NamedGate alpha = new NamedGate("alpha", 2, log);
+		NamedGate beta = new NamedGate("beta", 1, log);
+		Martini holder = new MartiniIteratorTest.GatedMartini("holder", ImmutableList.of(beta));
+		Martini blocked = new MartiniIteratorTest.GatedMartini("blocked", ImmutableList.of(alpha, beta));
+		GateCoordinator coordinator = new GateCoordinator(ImmutableList.of(holder, blocked));
+
+		MartiniGate[] held = coordinator.getOrdered(holder.getGates());
+		checkState(null == coordinator.acquire(held), "free gate not acquired");
+		log.clear();
+
+		MartiniGate[] gates = coordinator.getOrdered(blocked.getGates());
+		checkState(beta == coordinator.acquire(gates), "wrong blocking gate reported");
+		checkState(log.isEmpty(), "gates touched by failed acquisition: %s", log);
+		checkState(2 == coordinator.getAvailable(alpha), "permit leaked on open gate");
+		checkState(0 == coordinator.getAvailable(beta), "held permit not accounted");
+
+		coordinator.release(held);
+		checkState(1 == coordinator.getAvailable(beta), "released permit not accounted");
+		checkState(null == coordinator.acquire(gates), "gates not acquired after release");
+		checkState(1 == coordinator.getAvailable(alpha) && 0 == coordinator.getAvailable(beta), "wrong permit accounting");
+	}
+
+	@Test
+	public void testExternallyHeldGateRolledBack() {
+		List<String> log = new ArrayList<>();
+		NamedGate alpha = new NamedGate("alpha", 1, log);
+		NamedGate beta = new NamedGate("beta", 1, log);
+		Martini martini = new MartiniIteratorTest.GatedMartini("one", ImmutableList.of(alpha, beta));
+		GateCoordinator coordinator = new GateCoordinator(ImmutableList.of(martini));
+
+		beta.enter();
+		log.clear();
+		MartiniGate[] gates = coordinator.getOrdered(martini.getGates());
+		checkState(beta == coordinator.acquire(gates), "externally held gate not reported");
+		checkState(ImmutableList.of("enter alpha", "refused beta", "leave alpha").equals(log),
+			"unexpected gate sequence %s", log);
+		checkState(1 == coordinator.getAvailable(alpha), "rolled back permit not accounted");
+	}
+
+	@Test
+	public void testZeroPermitGateClosed() {
+		List<String> log = new ArrayList<>();
+		NamedGate closed = new NamedGate("closed", 0, log);
+		Martini martini = new MartiniIteratorTest.GatedMartini("one", ImmutableList.of(closed));
+		GateCoordinator coordinator = new GateCoordinator(ImmutableList.of(martini));
+
+		MartiniGate[] gates = coordinator.getOrdered(martini.getGates());
+		checkState(0 == coordinator.getAvailable(closed), "zero-permit gate reported available");
+		checkState(closed == coordinator.acquire(gates), "zero-permit gate acquired");
+		checkState(!coordinator.isHeld(closed), "zero-permit gate reported held");
+		checkState(log.isEmpty(), "zero-permit gate entered: %s", log);
+	}
+
+	protected static class NamedGate implements TestMartiniGate {
+
+		protected final String name;
+		protected final int permits;
+		protected final List<String> log;
+		protected int entered;
+
+		protected NamedGate(String name, int permits, List<String> log) {
+			this.name = name;
+			this.permits = permits;
+			this.log = log;
+		}
+
+		@Override
+		public String getName() {
+			return name;
+		}
+
+		@Override
+		public int getPermits() {
+			return permits;
+		}
+
+		@Override
+		public boolean enter() {
+			boolean available = entered < permits;
+			entered += available ? 1 : 0;
+			log.add((available ? "enter " : "refused ") + name);
+			return available;
+		}
+
+		@Override
+		public void leave() {
+			entered--;
+			log.add("leave " + name);
+		}
+	}
+}
@@ -0,0 +1,106 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package guru.qas.martini.standalone.harness;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.beust.jcommander.JCommander;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+
+import guru.qas.martini.Martini;
+import guru.qas.martini.gate.MartiniGate;
+import guru.qas.martini.standalone.io.BinaryResultWriter;
+import guru.qas.martini.standalone.io.ResultRecord;
+import guru.qas.martini.standalone.jcommander.CommandLineOptions;
+
+import static com.google.common.base.Preconditions.checkState;
+import static guru.qas.martini.standalone.jcommander.CommandLineOptions.PARAMETER_DURATION_HISTORY_FILE;
+
+@SuppressWarnings("WeakerAccess")
+public class HistoricalDurationMartiniComparatorTest {
+
+	protected File file;
+	protected HistoricalDurationMartiniComparator comparator;
+
+	@BeforeClass
+	public void setUp() throws Exception {
+		file = File.createTempFile("history", ".bin");
+		try (BinaryResultWriter writer = new BinaryResultWriter(Files.newOutputStream(file.toPath()))) {
+			writer.write(new ResultRecord("long", "PASSED", 0, 300, null, null));
+			writer.write(new ResultRecord("short", "PASSED", 0, 100, null, null));
+			writer.write(new ResultRecord("short", "PASSED", 0, 100, null, null));
+		}
+
+		CommandLineOptions options = new CommandLineOptions();
+		String[] arguments = {PARAMETER_DURATION_HISTORY_FILE, file.getAbsolutePath()};
+		JCommander.newBuilder().addObject(options).build().parse(arguments);
+		comparator = new HistoricalDurationMartiniComparator(options);
+		comparator.afterPropertiesSet();
+	}
+
+	@AfterClass
+	public void tearDown() throws IOException {
+		comparator = null;
+		Files.deleteIfExists(file.toPath());
+	}
+
+	@Test
+	public void testLongestFirst() {
+		Martini longer = getMartini("long");
+		Martini shorter = getMartini("short");
+
+		checkState(0 > comparator.compare(longer, shorter), "longer Martini should sort first");
+		checkState(0 < comparator.compare(shorter, longer), "shorter Martini should sort last");
+	}
+
+	@Test
+	public void testUnknownDefaultsToMeanDuration() {
+		Martini longer = getMartini("long");
+		Martini unknown = getMartini("unknown");
+		Martini shorter = getMartini("short");
+
+		ArrayList<Martini> martinis = Lists.newArrayList(shorter, unknown, longer);
+		martinis.sort(comparator);
+
+		List<Martini> expected = ImmutableList.of(longer, unknown, shorter);
+		checkState(expected.equals(martinis), "unknown Martini should sort at the mean duration: %s", martinis);
+	}
+
+	@Test
+	public void testEqualDurationsUseGateOrder() {
+		Martini ungated = getMartini("unknown");
+		Martini gated = getMartini("other", new MartiniIteratorTest.CountingGate(1));
+
+		ArrayList<Martini> martinis = Lists.newArrayList(ungated, gated);
+		martinis.sort(comparator);
+
+		List<Martini> expected = ImmutableList.of(gated, ungated);
+		checkState(expected.equals(martinis), "equal durations should fall back to gate order: %s", martinis);
+	}
+
+	protected Martini getMartini(String id, MartiniGate... gates) {
+		return new MartiniIteratorTest.GatedMartini(id, ImmutableList.copyOf(gates));
+	}
+}
@@ -0,0 +1,433 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package guru.qas.martini.standalone.harness;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.HdrHistogram.Histogram;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+import guru.qas.martini.Martini;
+import guru.qas.martini.gate.MartiniGate;
+import guru.qas.martini.standalone.TestMartini;
+import guru.qas.martini.standalone.TestMartiniGate;
+
+import static com.google.common.base.Preconditions.checkState;
+
+@SuppressWarnings("WeakerAccess")
+public class MartiniIteratorTest {
+
+	@Test
+	public void testUngatedInComparatorOrder() {
+		Martini one = new GatedMartini("one", ImmutableSet.of());
+		Martini two = new GatedMartini("two", ImmutableSet.of());
+		MartiniIterator i = getIterator(one, two);
+
+		checkState(one.equals(i.next().orElse(null)), "wrong Martini returned first");
+		checkState(two.equals(i.next().orElse(null)), "wrong Martini returned second");
+		checkState(!i.hasNext(), "iterator should be exhausted");
+	}
+
+	@Test
+	public void testBlockedMartiniParkedUntilRelease() {
+		CountingGate gate = new CountingGate(1);
+		Martini one = new GatedMartini("one", Collections.singleton(gate));
+		Martini two = new GatedMartini("two", Collections.singleton(gate));
+		Martini three = new GatedMartini("three", ImmutableSet.of());
+		MartiniIterator i = getIterator(one, two, three);
+
+		checkState(one.equals(i.next().orElse(null)), "gated Martini should be returned first");
+		checkState(three.equals(i.next().orElse(null)), "blocked Martini should be skipped");
+
+		int attempts = gate.attempts;
+		checkState(!i.next().isPresent(), "no Martini should pass a full gate");
+		checkState(attempts == gate.attempts, "parked Martini should not be retried before release");
+		checkState(i.hasNext(), "parked Martini should still be pending");
+
+		i.release(one);
+		checkState(0 == gate.entered, "gate permit not released");
+		checkState(two.equals(i.next().orElse(null)), "parked Martini not woken by release");
+		checkState(!i.hasNext(), "iterator should be exhausted");
+	}
+
+	@Test
+	public void testPartialLockReleased() {
+		CountingGate open = new CountingGate(5);
+		CountingGate full = new CountingGate(1);
+		Martini holder = new GatedMartini("holder", Collections.singleton(full));
+		Martini blocked = new GatedMartini("blocked", ImmutableList.of(open, full));
+		MartiniIterator i = getIterator(holder, blocked);
+
+		checkState(holder.equals(i.next().orElse(null)), "wrong Martini returned first");
+		checkState(!i.next().isPresent(), "blocked Martini should not be returned");
+		checkState(0 == open.entered, "permit leaked by partially locked Martini");
+	}
+
+	@Test
+	public void testClaimedReleasesThroughParent() {
+		CountingGate gate = new CountingGate(1);
+		Martini one = new GatedMartini("one", Collections.singleton(gate));
+		Martini two = new GatedMartini("two", Collections.singleton(gate));
+		MartiniIterator i = getIterator(one, two);
+
+		Martini next = i.next().orElseThrow(IllegalStateException::new);
+		checkState(!i.next().isPresent(), "blocked Martini should not be returned");
+
+		GatedIterator claimed = i.claimed(next);
+		checkState(claimed.hasNext(), "claimed iterator should hold Martini");
+		checkState(next.equals(claimed.next().orElse(null)), "claimed iterator returned wrong Martini");
+		checkState(!claimed.hasNext(), "claimed iterator should be exhausted");
+
+		claimed.release(next);
+		checkState(two.equals(i.next().orElse(null)), "release through claimed iterator did not wake parked Martini");
+	}
+
+	@Test
+	public void testHasNextDoesNotContendWithNext() throws Exception {
+		Martini one = new GatedMartini("one", ImmutableSet.of());
+		MartiniIterator i = getIterator(one);
+
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		i.monitor.enter();
+		try {
+			Future<Boolean> hasNext = executor.submit(i::hasNext);
+			checkState(hasNext.get(1, TimeUnit.SECONDS), "hasNext should be answered while Monitor is held");
+		}
+		finally {
+			i.monitor.leave();
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testCounters() {
+		CountingGate gate = new CountingGate(1);
+		Martini one = new GatedMartini("one", Collections.singleton(gate));
+		Martini two = new GatedMartini("two", Collections.singleton(gate));
+		MartiniIterator i = getIterator(one, two);
+
+		i.next();
+		i.next();
+		checkState(1 == i.getRemaining(), "wrong remaining count");
+		checkState(1 == i.getDispatchedCount(), "wrong dispatched count");
+		checkState(1 == i.getEmptyPollCount(), "wrong empty poll count");
+
+		i.release(one);
+		i.next();
+		checkState(!i.hasNext(), "iterator should be exhausted");
+		checkState(2 == i.getDispatchedCount(), "wrong dispatched count");
+		checkState(0 == i.getLockTimeoutCount(), "unexpected Monitor timeout");
+	}
+
+	@Test
+	public void testReleaseWakesOnlyAvailablePermits() {
+		List<String> log = new ArrayList<>();
+		GateCoordinatorTest.NamedGate alpha = new GateCoordinatorTest.NamedGate("alpha", 1, log);
+		GateCoordinatorTest.NamedGate beta = new GateCoordinatorTest.NamedGate("beta", 1, log);
+		Martini holdAlpha = new GatedMartini("holdAlpha", Collections.singleton(alpha));
+		Martini holdBeta = new GatedMartini("holdBeta", Collections.singleton(beta));
+		Martini both = new GatedMartini("both", ImmutableList.of(alpha, beta));
+		Martini alphaOnly = new GatedMartini("alphaOnly", Collections.singleton(alpha));
+		MartiniIterator i = getIterator(holdAlpha, holdBeta, both, alphaOnly);
+
+		checkState(holdAlpha.equals(i.next().orElse(null)), "wrong Martini returned first");
+		checkState(holdBeta.equals(i.next().orElse(null)), "wrong Martini returned second");
+		checkState(!i.next().isPresent(), "no Martini should pass held gates");
+
+		log.clear();
+		i.release(holdAlpha);
+		checkState(alphaOnly.equals(i.next().orElse(null)), "permit not handed on past Martini blocked elsewhere");
+		checkState(ImmutableList.of("leave alpha", "enter alpha").equals(log), "unexpected gate sequence %s", log);
+
+		i.release(alphaOnly);
+		i.release(holdBeta);
+		checkState(both.equals(i.next().orElse(null)), "Martini not woken once all gates free");
+		checkState(!i.hasNext(), "iterator should be exhausted");
+	}
+
+	@Test
+	public void testExternallyHeldGateRepolled() throws Exception {
+		CountingGate gate = new CountingGate(1);
+		Martini one = new GatedMartini("one", Collections.singleton(gate));
+		MartiniIterator i = MartiniIterator.builder()
+			.setComparator((left, right) -> 0)
+			.setPollTimeoutMs(20)
+			.setMartinis(Collections.singleton(one))
+			.build();
+
+		gate.enter();
+		checkState(!i.next().isPresent(), "externally held gate entered");
+		checkState(i.isDeferred(), "Martini blocked by external holder should be deferred");
+
+		gate.leave();
+		Thread.sleep(40);
+		checkState(one.equals(i.next().orElse(null)), "deferred Martini not polled again after timeout");
+		checkState(!i.isDeferred(), "deferred Martini retained");
+	}
+
+	@Test
+	public void testZeroPermitGateNotEntered() {
+		CountingGate gate = new CountingGate(0);
+		Martini one = new GatedMartini("one", Collections.singleton(gate));
+		MartiniIterator i = getIterator(one);
+
+		checkState(!i.next().isPresent(), "Martini behind zero-permit gate returned");
+		checkState(0 == gate.attempts, "zero-permit gate entered");
+		checkState(i.hasNext() && i.isDeferred(), "Martini behind zero-permit gate should remain deferred");
+	}
+
+	@Test
+	public void testDrain() {
+		CountingGate gate = new CountingGate(1);
+		Martini one = new GatedMartini("one", Collections.singleton(gate));
+		Martini two = new GatedMartini("two", Collections.singleton(gate));
+		Martini three = new GatedMartini("three", ImmutableSet.of());
+		MartiniIterator i = getIterator(one, two, three);
+
+		checkState(one.equals(i.next().orElse(null)), "wrong Martini returned first");
+		List<Martini> drained = i.drain();
+		checkState(ImmutableList.of(two, three).equals(drained), "wrong Martinis drained: %s", drained);
+		checkState(!i.hasNext() && 0 == i.getRemaining(), "drained iterator should be exhausted");
+
+		i.release(one);
+		checkState(!i.next().isPresent(), "drained Martini dispatched after release");
+	}
+
+	@Test
+	public void testRetryAfterFirstAttempts() {
+		Martini one = new GatedMartini("one", ImmutableSet.of());
+		Martini two = new GatedMartini("two", ImmutableSet.of());
+		List<Martini> ordered = ImmutableList.of(one, two);
+		MartiniIterator i = MartiniIterator.builder()
+			.setComparator((left, right) -> Integer.compare(ordered.indexOf(left), ordered.indexOf(right)))
+			.setMaxAttempts(2)
+			.setMartinis(ordered)
+			.build();
+
+		checkState(one.equals(i.next().orElse(null)), "wrong Martini returned first");
+		checkState(i.claimed(one).retry(one), "first retry refused");
+		checkState(two.equals(i.next().orElse(null)), "retry should follow first attempts");
+		checkState(one.equals(i.next().orElse(null)), "retried Martini not returned");
+		checkState(!i.hasNext(), "iterator should be exhausted");
+
+		checkState(!i.retry(one), "retry accepted beyond maximum attempts");
+		checkState(i.retry(two), "retry of second Martini refused");
+		i.drain();
+		checkState(!i.retry(two), "retry accepted after drain");
+		checkState(2 == i.getRetryCount(), "wrong retry count");
+	}
+
+	@Test
+	public void testRequeueOnceAheadOfRemaining() {
+		CountingGate gate = new CountingGate(1);
+		Martini one = new GatedMartini("one", Collections.singleton(gate));
+		Martini two = new GatedMartini("two", ImmutableSet.of());
+		Martini three = new GatedMartini("three", ImmutableSet.of());
+		MartiniIterator i = getIterator(one, two, three);
+
+		checkState(one.equals(i.next().orElse(null)), "wrong Martini returned first");
+		i.release(one);
+		checkState(i.requeue(one), "first requeue refused");
+		checkState(3 == i.getRemaining(), "requeue not counted as remaining");
+		checkState(one.equals(i.next().orElse(null)), "requeued Martini should precede remaining Martinis");
+		i.release(one);
+		checkState(!i.requeue(one), "second requeue of the same Martini accepted");
+		checkState(two.equals(i.next().orElse(null)), "wrong Martini returned after requeue");
+	}
+
+	@Test
+	public void testAffinityPrefersLastKey() throws Exception {
+		Martini alphaOne = new GatedMartini("alphaOne", ImmutableSet.of());
+		Martini betaOne = new GatedMartini("betaOne", ImmutableSet.of());
+		Martini alphaTwo = new GatedMartini("alphaTwo", ImmutableSet.of());
+		Martini betaTwo = new GatedMartini("betaTwo", ImmutableSet.of());
+		List<Martini> ordered = ImmutableList.of(alphaOne, betaOne, alphaTwo, betaTwo);
+		MartiniIterator i = MartiniIterator.builder()
+			.setComparator((left, right) -> Integer.compare(ordered.indexOf(left), ordered.indexOf(right)))
+			.setAffinity(martini -> martini.getId().substring(0, 4))
+			.setMartinis(ordered)
+			.build();
+
+		checkState(alphaOne.equals(i.next().orElse(null)), "wrong Martini returned first");
+
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<Martini> stolen = executor.submit(() -> i.next().orElse(null));
+			checkState(betaOne.equals(stolen.get(1, TimeUnit.SECONDS)), "new thread should take the global head");
+		}
+		finally {
+			executor.shutdownNow();
+		}
+
+		checkState(alphaTwo.equals(i.next().orElse(null)), "Martini sharing last key not preferred");
+		checkState(betaTwo.equals(i.next().orElse(null)), "exhausted key should fall back to global order");
+		checkState(!i.hasNext(), "iterator should be exhausted");
+	}
+
+	@Test
+	public void testClaimingThreadPrefersClaimedKey() throws Exception {
+		Martini alphaOne = new GatedMartini("alphaOne", ImmutableSet.of());
+		Martini betaOne = new GatedMartini("betaOne", ImmutableSet.of());
+		Martini alphaTwo = new GatedMartini("alphaTwo", ImmutableSet.of());
+		List<Martini> ordered = ImmutableList.of(alphaOne, betaOne, alphaTwo);
+		MartiniIterator i = MartiniIterator.builder()
+			.setComparator((left, right) -> Integer.compare(ordered.indexOf(left), ordered.indexOf(right)))
+			.setAffinity(martini -> martini.getId().substring(0, 4))
+			.setMartinis(ordered)
+			.build();
+
+		Martini dispatched = i.next().orElse(null);
+		checkState(alphaOne.equals(dispatched), "wrong Martini returned first");
+
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<Martini> chained = executor.submit(() -> {
+				i.claimed(dispatched).next();
+				return i.next().orElse(null);
+			});
+			checkState(alphaTwo.equals(chained.get(1, TimeUnit.SECONDS)),
+				"worker should prefer the key of the Martini it claimed");
+		}
+		finally {
+			executor.shutdownNow();
+		}
+		checkState(betaOne.equals(i.next().orElse(null)), "wrong Martini returned last");
+	}
+
+	@Test
+	public void testGateWaitRecorded() {
+		CountingGate gate = new CountingGate(1);
+		Martini one = new GatedMartini("one", Collections.singleton(gate));
+		Martini two = new GatedMartini("two", Collections.singleton(gate));
+		LatencyRecorder recorder = new LatencyRecorder();
+		List<Martini> ordered = ImmutableList.of(one, two);
+		MartiniIterator i = MartiniIterator.builder()
+			.setComparator((left, right) -> Integer.compare(ordered.indexOf(left), ordered.indexOf(right)))
+			.setLatencyRecorder(recorder)
+			.setMartinis(ordered)
+			.build();
+
+		i.next();
+		i.next();
+		i.release(one);
+		i.next();
+
+		Map<String, Histogram> histograms = recorder.getHistograms();
+		Histogram gateWait = histograms.get(LatencyRecorder.GATE_WAIT_PREFIX + gate.getName());
+		checkState(null != gateWait && 2 == gateWait.getTotalCount(), "gate wait not recorded: %s", histograms.keySet());
+		checkState(0 == gateWait.getMinValue(), "unblocked Martini should record no gate wait");
+		checkState(0 < gateWait.getMaxValue(), "blocked Martini should record its gate wait");
+		checkState(0 == histograms.get(LatencyRecorder.QUEUE_WAIT).getTotalCount(), "unexpected queue wait");
+	}
+
+	@Test
+	public void testComparatorSubclassHonored() {
+		Martini ungated = new GatedMartini("ungated", Collections.emptyList());
+		Martini gated = new GatedMartini("gated", Collections.singleton(new CountingGate(1)));
+		MartiniIterator i = MartiniIterator.builder()
+			.setComparator(new DefaultMartiniComparator() {
+				@Override
+				public int compare(Martini left, Martini right) {
+					return super.compare(right, left);
+				}
+			})
+			.setMartinis(ImmutableList.of(gated, ungated))
+			.build();
+
+		checkState(ungated.equals(i.next().orElse(null)), "overridden compare() ignored");
+	}
+
+	protected MartiniIterator getIterator(Martini... martinis) {
+		List<Martini> ordered = ImmutableList.copyOf(martinis);
+		return MartiniIterator.builder()
+			.setComparator((left, right) -> Integer.compare(ordered.indexOf(left), ordered.indexOf(right)))
+			.setMartinis(ImmutableSet.copyOf(martinis).asList().reverse())
+			.build();
+	}
+
+	protected static class CountingGate implements TestMartiniGate {
+
+		protected final int permits;
+		protected int entered;
+		protected int attempts;
+
+		protected CountingGate(int permits) {
+			this.permits = permits;
+		}
+
+		@Override
+		public String getName() {
+			return "counting";
+		}
+
+		@Override
+		public int getPermits() {
+			return permits;
+		}
+
+		@Override
+		public boolean enter() {
+			attempts++;
+			boolean available = entered < permits;
+			entered += available ? 1 : 0;
+			return available;
+		}
+
+		@Override
+		public void leave() {
+			checkState(0 < entered, "gate left more often than entered");
+			entered--;
+		}
+	}
+
+	protected static class GatedMartini implements TestMartini {
+
+		protected final String id;
+		protected final Collection<MartiniGate> gates;
+
+		protected GatedMartini(String id, Collection<MartiniGate> gates) {
+			this.id = id;
+			this.gates = gates;
+		}
+
+		@Override
+		public String getId() {
+			return id;
+		}
+
+		@Override
+		public Collection<MartiniGate> getGates() {
+			return gates;
+		}
+
+		@Override
+		public String toString() {
+			return id;
+		}
+	}
+}
@@ -0,0 +1,141 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package guru.qas.martini.standalone.harness;
+
+import java.util.Collections;
+import java.util.concurrent.Callable;
+
+import javax.annotation.Nonnull;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationContextAware;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import guru.qas.martini.Martini;
+import guru.qas.martini.result.MartiniResult;
+
+import static com.google.common.base.Preconditions.checkState;
+
+@SuppressWarnings("WeakerAccess")
+public class PreResolvedTaskFactoryTest {
+
+	protected AnnotationConfigApplicationContext context;
+	protected Martini martini;
+
+	@BeforeMethod
+	public void setUp() {
+		context = new AnnotationConfigApplicationContext();
+		context.registerBean(SingletonDependency.class);
+		context.registerBean(PrototypeDependency.class, definition -> definition.setScope(BeanDefinition.SCOPE_PROTOTYPE));
+		context.refresh();
+		martini = new MartiniIteratorTest.GatedMartini("martini", Collections.emptyList());
+	}
+
+	@AfterMethod
+	public void tearDown() {
+		context.close();
+	}
+
+	@Test
+	public void testSingletonDependenciesCopied() throws Exception {
+		PreResolvedTaskFactory factory = getFactory(SingletonCallable::new);
+		SingletonCallable first = (SingletonCallable) factory.getCallable(martini);
+		SingletonCallable second = (SingletonCallable) factory.getCallable(martini);
+
+		checkState(null != factory.template.fields, "singleton-only callable not pre-resolved");
+		checkState(first != second, "callable reused across tasks");
+		checkState(null != first.dependency && first.dependency == second.dependency,
+			"singleton dependency not copied to subsequent callables");
+	}
+
+	@Test
+	public void testPrototypeDependencyFreshPerTask() throws Exception {
+		PreResolvedTaskFactory factory = getFactory(PrototypeCallable::new);
+		PrototypeCallable first = (PrototypeCallable) factory.getCallable(martini);
+		PrototypeCallable second = (PrototypeCallable) factory.getCallable(martini);
+
+		checkState(null == factory.template.fields, "prototype dependency should require full wiring");
+		checkState(null != first.dependency && null != second.dependency, "prototype dependency not injected");
+		checkState(first.dependency != second.dependency, "prototype dependency shared across tasks");
+	}
+
+	@Test
+	public void testAwareCallableFullyWired() throws Exception {
+		PreResolvedTaskFactory factory = getFactory(AwareCallable::new);
+		factory.getCallable(martini);
+		AwareCallable second = (AwareCallable) factory.getCallable(martini);
+
+		checkState(null == factory.template.fields, "Aware callable should require full wiring");
+		checkState(context == second.applicationContext, "Aware callback skipped for subsequent callables");
+	}
+
+	protected PreResolvedTaskFactory getFactory(CallableFactory callableFactory) {
+		PreResolvedTaskFactory factory = new PreResolvedTaskFactory(null) {
+			@Override
+			protected Callable<MartiniResult> newCallable(Martini martini) {
+				return callableFactory.newCallable();
+			}
+		};
+		factory.setApplicationContext(context);
+		return factory;
+	}
+
+	protected interface CallableFactory {
+
+		Callable<MartiniResult> newCallable();
+	}
+
+	public static class SingletonDependency {
+	}
+
+	public static class PrototypeDependency {
+	}
+
+	protected abstract static class TestCallable implements Callable<MartiniResult> {
+
+		@Override
+		public MartiniResult call() {
+			return null;
+		}
+	}
+
+	protected static class SingletonCallable extends TestCallable {
+
+		@Autowired
+		protected SingletonDependency dependency;
+	}
+
+	protected static class PrototypeCallable extends TestCallable {
+
+		@Autowired
+		protected PrototypeDependency dependency;
+	}
+
+	protected static class AwareCallable extends TestCallable implements ApplicationContextAware {
+
+		protected ApplicationContext applicationContext;
+
+		@Override
+		public void setApplicationContext(@Nonnull ApplicationContext applicationContext) {
+			this.applicationContext = applicationContext;
+		}
+	}
+}
@@ -0,0 +1,146 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package guru.qas.martini.standalone.harness;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import guru.qas.martini.standalone.TestMartini;
+import guru.qas.martini.tag.MartiniTag;
+
+import static com.google.common.base.Preconditions.checkState;
+
+@SuppressWarnings("WeakerAccess")
+public class ScenarioWatchdogTest {
+
+	@Test
+	public void testTagOverridesDefault() {
+		ScenarioWatchdog watchdog = new ScenarioWatchdog(event -> {}, Duration.ofSeconds(60), "Timeout");
+		try {
+			checkState(Duration.ofSeconds(60).equals(watchdog.getTimeout(new TaggedMartini("plain")).orElse(null)),
+				"default timeout not applied");
+			checkState(Duration.ofSeconds(5).equals(watchdog.getTimeout(new TaggedMartini("short", "5")).orElse(null)),
+				"tag did not override default timeout");
+			checkState(!watchdog.getTimeout(new TaggedMartini("unbounded", "0")).isPresent(),
+				"zero tag argument should disable timeout");
+			checkState(Duration.ofSeconds(60).equals(watchdog.getTimeout(new TaggedMartini("bad", "soon")).orElse(null)),
+				"invalid tag argument should fall back to default");
+		}
+		finally {
+			watchdog.destroy();
+		}
+	}
+
+	@Test
+	public void testExpiryReleasesAndInterrupts() {
+		List<Object> events = new ArrayList<>();
+		ScenarioWatchdog watchdog = new ScenarioWatchdog(events::add, null, "Timeout");
+		AtomicInteger released = new AtomicInteger();
+		try {
+			ScenarioWatchdog.Watch watch = watchdog.watch(new TaggedMartini("hung", "1"), released::incrementAndGet);
+			boolean interrupted = false;
+			try {
+				Thread.sleep(30_000);
+			}
+			catch (InterruptedException e) {
+				interrupted = true;
+			}
+			checkState(interrupted, "hung scenario not interrupted");
+			checkState(watch.isExpired(), "watch should be expired");
+			checkState(1 == released.get(), "gates not released by watchdog");
+			checkState(1 == events.size() && events.get(0) instanceof ScenarioTimedOutEvent, "timeout not published");
+
+			ScenarioTimedOutEvent event = (ScenarioTimedOutEvent) events.get(0);
+			checkState(0 < event.getStackTrace().length, "stack trace not captured");
+			checkState(Thread.currentThread().getName().equals(event.getThreadName()), "wrong thread reported");
+
+			Thread.currentThread().interrupt();
+			watch.cancel();
+			checkState(!Thread.currentThread().isInterrupted(), "interrupt leaked past cancelled watch");
+		}
+		finally {
+			watchdog.destroy();
+		}
+	}
+
+	@Test
+	public void testCancelledWatchDoesNotExpire() throws InterruptedException {
+		List<Object> events = new ArrayList<>();
+		ScenarioWatchdog watchdog = new ScenarioWatchdog(events::add, Duration.ofSeconds(1), "Timeout");
+		try {
+			ScenarioWatchdog.Watch watch = watchdog.watch(new TaggedMartini("fast"), () -> {});
+			watch.cancel();
+			Thread.sleep(1_500);
+			checkState(!watch.isExpired() && events.isEmpty(), "cancelled watch expired");
+			checkState(!Thread.currentThread().isInterrupted(), "cancelled watch interrupted thread");
+		}
+		finally {
+			watchdog.destroy();
+		}
+	}
+
+	protected static class TaggedMartini implements TestMartini {
+
+		protected final String id;
+		protected final Collection<MartiniTag> tags;
+
+		protected TaggedMartini(String id, String... timeouts) {
+			this.id = id;
+			ImmutableList.Builder<MartiniTag> builder = ImmutableList.builder();
+			for (String timeout : timeouts) {
+				builder.add(new TimeoutTag(timeout));
+			}
+			this.tags = builder.build();
+		}
+
+		@Override
+		public String getId() {
+			return id;
+		}
+
+		@Override
+		public Collection<MartiniTag> getTags() {
+			return tags;
+		}
+	}
+
+	protected static class TimeoutTag implements MartiniTag {
+
+		protected final String argument;
+
+		protected TimeoutTag(String argument) {
+			this.argument = argument;
+		}
+
+		@Override
+		public String getName() {
+			return "Timeout";
+		}
+
+		@Override
+		public String getArgument() {
+			return argument;
+		}
+	}
+}
@@ -0,0 +1,113 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package guru.qas.martini.standalone.harness;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.testng.annotations.Test;
+
+import guru.qas.martini.Martini;
+import guru.qas.martini.standalone.TestMartini;
+import guru.qas.martini.standalone.io.BinaryResultWriter;
+import guru.qas.martini.standalone.io.DurationHistory;
+import guru.qas.martini.standalone.io.ResultRecord;
+
+import static com.google.common.base.Preconditions.checkState;
+
+@SuppressWarnings("WeakerAccess")
+public class ShardTest {
+
+	@Test
+	public void testHashShardsPartitionSelection() {
+		List<Martini> martinis = getMartinis(1000);
+		List<Martini> reversed = new ArrayList<>(martinis);
+		Collections.reverse(reversed);
+
+		Set<Martini> union = new HashSet<>();
+		for (int index = 0; index < 4; index++) {
+			Shard shard = new Shard(index, 4, null);
+			List<Martini> selected = shard.select(martinis);
+			checkState(!selected.isEmpty(), "%s selected no Martinis", shard);
+			checkState(new HashSet<>(selected).equals(new HashSet<>(shard.select(reversed))),
+				"%s selection depends on input order", shard);
+			selected.forEach(martini -> checkState(union.add(martini), "%s selected by multiple shards", martini));
+		}
+		checkState(union.size() == martinis.size(), "shards do not cover selection");
+	}
+
+	@Test
+	public void testBalancedShardsPartitionByDuration() throws IOException {
+		List<Martini> martinis = getMartinis(9);
+		DurationHistory history = getHistory(martinis);
+
+		Set<Martini> union = new HashSet<>();
+		long[] loads = new long[3];
+		for (int index = 0; index < 3; index++) {
+			List<Martini> selected = new Shard(index, 3, history).select(martinis);
+			for (Martini martini : selected) {
+				checkState(union.add(martini), "%s selected by multiple shards", martini);
+				loads[index] += history.getDuration(martini.getId());
+			}
+		}
+		checkState(union.size() == martinis.size(), "shards do not cover selection");
+		checkState(16 == loads[0] && 15 == loads[1] && 14 == loads[2], "shards not balanced longest first: %s",
+			Arrays.toString(loads));
+	}
+
+	protected DurationHistory getHistory(List<Martini> martinis) throws IOException {
+		File file = File.createTempFile("history", ".bin");
+		try {
+			try (BinaryResultWriter writer = new BinaryResultWriter(Files.newOutputStream(file.toPath()))) {
+				for (int i = 0; i < martinis.size(); i++) {
+					String id = martinis.get(i).getId();
+					writer.write(new ResultRecord(id, "PASSED", 0, i + 1, null, null));
+				}
+			}
+			return DurationHistory.load(Collections.singleton(file));
+		}
+		finally {
+			Files.deleteIfExists(file.toPath());
+		}
+	}
+
+	protected List<Martini> getMartinis(int count) {
+		List<Martini> martinis = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			String id = "Feature:Scenario " + i;
+			martinis.add(new TestMartini() {
+				@Override
+				public String getId() {
+					return id;
+				}
+
+				@Override
+				public String toString() {
+					return id;
+				}
+			});
+		}
+		return martinis;
+	}
+}
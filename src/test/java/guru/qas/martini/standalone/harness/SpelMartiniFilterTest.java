@@ -0,0 +1,83 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package guru.qas.martini.standalone.harness;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import org.springframework.expression.MethodResolver;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+import guru.qas.martini.Martini;
+import guru.qas.martini.standalone.test.spring.IdEndingResolver;
+
+import static com.google.common.base.Preconditions.checkState;
+
+@SuppressWarnings("WeakerAccess")
+public class SpelMartiniFilterTest {
+
+	protected static final List<Martini> MARTINIS = getMartinis();
+
+	protected static List<Martini> getMartinis() {
+		List<Martini> martinis = new ArrayList<>();
+		for (int i = 0; i < 500; i++) {
+			martinis.add(new MartiniIteratorTest.GatedMartini("Feature:Scenario " + i, ImmutableSet.of()));
+		}
+		return martinis;
+	}
+
+	@Test
+	public void testCompiledFilterMatchesInterpreted() throws Exception {
+		String expression = "id.endsWith('7') or id.length() < 19";
+		List<Martini> interpreted = select(expression, SpelCompilerMode.OFF, Collections.emptyList());
+		checkState(59 == interpreted.size(), "wrong number of Martinis selected: %s", interpreted.size());
+
+		for (SpelCompilerMode mode : ImmutableList.of(SpelCompilerMode.IMMEDIATE, SpelCompilerMode.MIXED)) {
+			SpelMartiniFilter filter = getFilter(expression, mode, Collections.emptyList());
+			List<Martini> selected = filter.select(MARTINIS, ForkJoinPool.commonPool());
+			checkState(filter.isCompiled(), "%s filter not compiled", mode);
+			checkState(interpreted.equals(selected), "%s filter selected different Martinis", mode);
+		}
+	}
+
+	@Test
+	public void testUncompilableFilterInterpreted() throws Exception {
+		List<MethodResolver> resolvers = ImmutableList.of(new IdEndingResolver());
+		SpelMartiniFilter filter = getFilter(IdEndingResolver.METHOD + "('9')", SpelCompilerMode.IMMEDIATE, resolvers);
+		List<Martini> selected = filter.select(MARTINIS, ForkJoinPool.commonPool());
+
+		checkState(!filter.isCompiled(), "filter using custom MethodResolver should not compile");
+		List<String> ids = selected.stream().map(Martini::getId).collect(Collectors.toList());
+		checkState(50 == ids.size() && ids.stream().allMatch(id -> id.endsWith("9")), "wrong Martinis selected");
+	}
+
+	protected List<Martini> select(String expression, SpelCompilerMode mode, List<MethodResolver> resolvers)
+		throws Exception {
+		return getFilter(expression, mode, resolvers).select(MARTINIS, ForkJoinPool.commonPool());
+	}
+
+	protected SpelMartiniFilter getFilter(String expression, SpelCompilerMode mode, List<MethodResolver> resolvers) {
+		return new SpelMartiniFilter(expression, mode, null, resolvers, Collections.emptyList());
+	}
+}
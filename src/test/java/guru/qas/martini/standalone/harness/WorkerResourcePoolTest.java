@@ -0,0 +1,126 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package guru.qas.martini.standalone.harness;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+import guru.qas.martini.Martini;
+
+import static com.google.common.base.Preconditions.checkState;
+
+@SuppressWarnings("WeakerAccess")
+public class WorkerResourcePoolTest {
+
+	@Test
+	public void testRecycledAfterMaximumUses() throws Exception {
+		CountingPool pool = new CountingPool(2);
+		List<Integer> seen = new CopyOnWriteArrayList<>();
+		ForkJoinPool forkJoinPool = getForkJoinPool(pool);
+		try {
+			for (int i = 0; i < 5; i++) {
+				forkJoinPool.submit(() -> seen.add(execute(pool))).get(5, TimeUnit.SECONDS);
+			}
+		}
+		finally {
+			forkJoinPool.shutdown();
+			forkJoinPool.awaitTermination(5, TimeUnit.SECONDS);
+		}
+
+		checkState(ImmutableList.of(1, 1, 2, 2, 3).equals(seen), "resources not recycled after maximum uses: %s", seen);
+		checkState(3 == pool.closed.get(), "worker termination should close the last resource");
+		checkState(pool.slots.isEmpty(), "terminated worker slot retained");
+	}
+
+	@Test
+	public void testUnhealthyResourceReplaced() throws Exception {
+		CountingPool pool = new CountingPool(0);
+		List<Integer> seen = new CopyOnWriteArrayList<>();
+		ForkJoinPool forkJoinPool = getForkJoinPool(pool);
+		try {
+			forkJoinPool.submit(() -> seen.add(execute(pool))).get(5, TimeUnit.SECONDS);
+			forkJoinPool.submit(() -> seen.add(execute(pool))).get(5, TimeUnit.SECONDS);
+			pool.healthy.set(false);
+			forkJoinPool.submit(() -> seen.add(execute(pool))).get(5, TimeUnit.SECONDS);
+		}
+		finally {
+			forkJoinPool.shutdownNow();
+			forkJoinPool.awaitTermination(5, TimeUnit.SECONDS);
+		}
+
+		checkState(ImmutableList.of(1, 1, 2).equals(seen), "unhealthy resource not replaced: %s", seen);
+	}
+
+	@Test
+	public void testReleasedAfterScenarioOnUnmanagedThread() {
+		CountingPool pool = new CountingPool(0);
+		checkState(1 == execute(pool), "wrong resource returned");
+		checkState(1 == pool.closed.get(), "resource should be closed without a worker lifecycle");
+		checkState(pool.slots.isEmpty(), "unmanaged thread slot retained");
+	}
+
+	protected ForkJoinPool getForkJoinPool(WorkerLifecycleListener listener) {
+		WorkerLifecycleThreadFactory factory = new WorkerLifecycleThreadFactory(ImmutableList.of(listener));
+		return new ForkJoinPool(1, factory, null, true);
+	}
+
+	protected Integer execute(WorkerResourcePool<Integer> pool) {
+		Martini martini = new MartiniIteratorTest.GatedMartini("martini", ImmutableSet.of());
+		pool.beforeScenario(martini);
+		try {
+			return pool.get();
+		}
+		finally {
+			pool.afterScenario(martini, null);
+		}
+	}
+
+	protected static class CountingPool extends WorkerResourcePool<Integer> {
+
+		protected final AtomicInteger created = new AtomicInteger();
+		protected final AtomicInteger closed = new AtomicInteger();
+		protected final AtomicBoolean healthy = new AtomicBoolean(true);
+
+		protected CountingPool(int maxUses) {
+			super(maxUses);
+		}
+
+		@Override
+		protected Integer create() {
+			healthy.set(true);
+			return created.incrementAndGet();
+		}
+
+		@Override
+		protected boolean isHealthy(Integer resource) {
+			return healthy.get();
+		}
+
+		@Override
+		protected void close(Integer resource) {
+			closed.incrementAndGet();
+		}
+	}
+}
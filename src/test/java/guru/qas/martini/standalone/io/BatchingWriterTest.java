@@ -0,0 +1,104 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package guru.qas.martini.standalone.io;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.annotations.Test;
+
+import static com.google.common.base.Preconditions.checkState;
+
+@SuppressWarnings("WeakerAccess")
+public class BatchingWriterTest {
+
+	@Test
+	public void testPutAfterCloseWrittenSynchronously() throws Exception {
+		RecordingHandler handler = new RecordingHandler();
+		BatchingWriter<Integer> writer = new BatchingWriter<>("test-writer", 4, 2, 1000, handler);
+		writer.start();
+		writer.put(1);
+		writer.close();
+		writer.put(2);
+
+		checkState(handler.getWritten().contains(1), "buffered item lost");
+		checkState(handler.getWritten().contains(2), "late item lost");
+		checkState(0 < handler.flushes, "late item not flushed");
+	}
+
+	@Test
+	public void testNoItemsLostRacingClose() throws Exception {
+		RecordingHandler handler = new RecordingHandler();
+		BatchingWriter<Integer> writer = new BatchingWriter<>("test-writer", 8, 4, 1000, handler);
+		writer.start();
+
+		int producers = 4;
+		int items = 500;
+		CountDownLatch started = new CountDownLatch(producers);
+		ExecutorService executor = Executors.newFixedThreadPool(producers);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int producer = 0; producer < producers; producer++) {
+				int offset = producer * items;
+				futures.add(executor.submit(() -> {
+					started.countDown();
+					for (int item = 0; item < items; item++) {
+						writer.put(offset + item);
+					}
+					return null;
+				}));
+			}
+			started.await(5, TimeUnit.SECONDS);
+			writer.close();
+			for (Future<?> future : futures) {
+				future.get(5, TimeUnit.SECONDS);
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+
+		Set<Integer> written = new HashSet<>(handler.getWritten());
+		checkState(producers * items == written.size(), "lost %s items", producers * items - written.size());
+	}
+
+	protected static class RecordingHandler implements BatchingWriter.Handler<Integer> {
+
+		protected final List<Integer> written = new ArrayList<>();
+		protected int flushes;
+
+		@Override
+		public synchronized void write(List<Integer> batch) {
+			written.addAll(batch);
+		}
+
+		@Override
+		public synchronized void flush() {
+			flushes++;
+		}
+
+		protected synchronized List<Integer> getWritten() {
+			return new ArrayList<>(written);
+		}
+	}
+}
@@ -0,0 +1,71 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package guru.qas.martini.standalone.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import static com.google.common.base.Preconditions.checkState;
+
+@SuppressWarnings("WeakerAccess")
+public class BinaryResultFormatTest {
+
+	@Test
+	public void testRoundTrip() throws IOException {
+		testRoundTrip(".bin");
+	}
+
+	@Test
+	public void testCompressedRoundTrip() throws IOException {
+		testRoundTrip(".bin.gz");
+	}
+
+	protected void testRoundTrip(String suffix) throws IOException {
+		List<ResultRecord> expected = ImmutableList.of(
+			new ResultRecord("Feature:One", "PASSED", 1583000000000L, 1250, "worker-1", "ci-01"),
+			new ResultRecord("Feature:Two", "FAILED", 1583000000100L, 0, "worker-2", "ci-01"),
+			new ResultRecord("Feature:Three", null, ResultRecord.UNKNOWN, ResultRecord.UNKNOWN, null, null),
+			new ResultRecord("Feature:Four", "PASSED", 1583000000200L, 42, "worker-1", "ci-01"));
+
+		File file = File.createTempFile("results", suffix);
+		try {
+			try (OutputStream outputStream = Compression.forFile(file).wrap(Files.newOutputStream(file.toPath()));
+				 BinaryResultWriter writer = new BinaryResultWriter(outputStream)) {
+				for (ResultRecord record : expected) {
+					writer.write(record);
+				}
+			}
+
+			checkState(BinaryResultReader.isBinary(file), "binary format not detected");
+
+			List<ResultRecord> actual = new ArrayList<>();
+			BinaryResultReader.forEach(file, actual::add);
+			checkState(expected.equals(actual), "wrong records read; expected %s but got %s", expected, actual);
+		}
+		finally {
+			checkState(file.delete(), "unable to delete temporary test file %s", file);
+		}
+	}
+}
@@ -0,0 +1,115 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package guru.qas.martini.standalone.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static com.google.common.base.Preconditions.checkState;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+@SuppressWarnings("WeakerAccess")
+public class CompletionJournalTest {
+
+	protected File file;
+
+	@BeforeMethod
+	public void setUp() throws IOException {
+		file = File.createTempFile("martini", ".journal");
+		checkState(file.delete(), "unable to delete %s", file);
+	}
+
+	@AfterMethod
+	public void tearDown() {
+		file.delete();
+	}
+
+	@Test
+	public void testAppendAcrossRuns() throws IOException {
+		try (CompletionJournal journal = new CompletionJournal(file)) {
+			journal.append("feature:one", "PASSED");
+			journal.append("feature:two", "FAILED");
+		}
+		try (CompletionJournal journal = new CompletionJournal(file)) {
+			journal.append("feature:three", null);
+		}
+
+		checkState(CompletionJournal.isJournal(file), "journal not recognized");
+		List<ResultRecord> records = read();
+		checkState(3 == records.size(), "wrong record count %s", records);
+		checkState("feature:one".equals(records.get(0).getId()), "wrong id %s", records.get(0));
+		checkState("FAILED".equals(records.get(1).getStatus().orElse(null)), "wrong status %s", records.get(1));
+		checkState(!records.get(2).getStatus().isPresent(), "unknown status not preserved %s", records.get(2));
+	}
+
+	@Test
+	public void testTornTailIgnored() throws IOException {
+		try (CompletionJournal journal = new CompletionJournal(file)) {
+			journal.append("feature:one", "PASSED");
+		}
+		Files.write(file.toPath(), "PASSED\tfeature:tw".getBytes(UTF_8), StandardOpenOption.APPEND);
+
+		List<ResultRecord> records = read();
+		checkState(1 == records.size(), "torn record not ignored: %s", records);
+	}
+
+	@Test
+	public void testAppendAfterTornTail() throws IOException {
+		try (CompletionJournal journal = new CompletionJournal(file)) {
+			journal.append("feature:one", "PASSED");
+			journal.append("feature:two", "PASSED");
+		}
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+			channel.truncate(channel.size() - 4);
+		}
+		try (CompletionJournal journal = new CompletionJournal(file)) {
+			journal.append("feature:three", "FAILED");
+		}
+
+		List<ResultRecord> records = read();
+		checkState(2 == records.size(), "wrong record count %s", records);
+		checkState("feature:one".equals(records.get(0).getId()), "wrong id %s", records.get(0));
+		checkState("feature:three".equals(records.get(1).getId()), "appended record corrupted %s", records.get(1));
+		checkState("FAILED".equals(records.get(1).getStatus().orElse(null)), "wrong status %s", records.get(1));
+	}
+
+	@Test
+	public void testReadThroughResultRecords() throws IOException {
+		try (CompletionJournal journal = new CompletionJournal(file)) {
+			journal.append("feature:one", "PASSED");
+		}
+		List<ResultRecord> records = new ArrayList<>();
+		ResultRecords.forEach(file, records::add);
+		checkState(1 == records.size() && "feature:one".equals(records.get(0).getId()),
+			"journal not read by ResultRecords: %s", records);
+	}
+
+	protected List<ResultRecord> read() throws IOException {
+		List<ResultRecord> records = new ArrayList<>();
+		CompletionJournal.forEach(file, records::add);
+		return records;
+	}
+}
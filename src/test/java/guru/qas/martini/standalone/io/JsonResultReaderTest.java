@@ -0,0 +1,88 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package guru.qas.martini.standalone.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import static com.google.common.base.Preconditions.checkState;
+
+@SuppressWarnings("WeakerAccess")
+public class JsonResultReaderTest {
+
+	protected static final String SUITE = "{\"id\":\"suite\",\"name\":\"Martini\"}";
+	protected static final String FEATURE = "{\"name\":\"Feature\",\"location\":\"feature.feature\"}";
+	protected static final String ONE = "{\"id\":\"Feature:One\",\"status\":\"PASSED\"," +
+		"\"startTimestamp\":100,\"endTimestamp\":250,\"thread\":\"worker-1\",\"steps\":[]}";
+	protected static final String TWO = "{\"id\":\"Feature:Two\",\"status\":\"FAILED\"," +
+		"\"startTimestamp\":300,\"executionTimeMs\":20,\"thread\":\"worker-2\",\"steps\":[{\"status\":\"FAILED\"}]}";
+
+	protected static final List<ResultRecord> EXPECTED = ImmutableList.of(
+		new ResultRecord("Feature:One", "PASSED", 100, 150, "worker-1", null),
+		new ResultRecord("Feature:Two", "FAILED", 300, 20, "worker-2", null));
+
+	@Test
+	public void testResultsRead() throws IOException {
+		String json = "[" + String.join(",", SUITE, FEATURE, ONE, TWO) + "]";
+		JsonResultReader reader = read(json);
+		checkState(!reader.isTruncated(), "complete output reported as truncated");
+	}
+
+	@Test
+	public void testTruncatedOutputRead() throws IOException {
+		String json = "[" + String.join(",", SUITE, FEATURE, ONE, TWO) + ",{\"id\":\"Feature:Thr";
+		JsonResultReader reader = read(json);
+		checkState(reader.isTruncated(), "truncated output not detected");
+	}
+
+	@Test
+	public void testGzipWithoutExtensionRead() throws IOException {
+		String json = "[" + String.join(",", SUITE, FEATURE, ONE, TWO) + "]";
+		File file = File.createTempFile("martini", ".json");
+		try {
+			try (OutputStream outputStream = Compression.GZIP.wrap(Files.newOutputStream(file.toPath()))) {
+				outputStream.write(json.getBytes(StandardCharsets.UTF_8));
+			}
+			List<ResultRecord> actual = new ArrayList<>();
+			ResultRecords.forEach(file, actual::add);
+			checkState(EXPECTED.equals(actual), "wrong records read; expected %s but got %s", EXPECTED, actual);
+		}
+		finally {
+			Files.deleteIfExists(file.toPath());
+		}
+	}
+
+	protected JsonResultReader read(String json) throws IOException {
+		byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+		try (JsonResultReader reader = new JsonResultReader(new ByteArrayInputStream(bytes))) {
+			List<ResultRecord> actual = new ArrayList<>();
+			reader.forEach(actual::add);
+			checkState(EXPECTED.equals(actual), "wrong records read; expected %s but got %s", EXPECTED, actual);
+			return reader;
+		}
+	}
+}
@@ -0,0 +1,43 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package guru.qas.martini.standalone.jcommander;
+
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import com.beust.jcommander.JCommander;
+import com.google.common.collect.ImmutableList;
+
+import static com.google.common.base.Preconditions.checkState;
+import static guru.qas.martini.standalone.jcommander.CommandLineOptions.PARAMETER_FORK_JVM_ARGS;
+
+@SuppressWarnings("WeakerAccess")
+public class CommandLineOptionsTest {
+
+	@Test
+	public void testForkJvmArgsKeptWhole() {
+		CommandLineOptions options = new CommandLineOptions();
+		JCommander.newBuilder().addObject(options).build().parse(
+			PARAMETER_FORK_JVM_ARGS, "-Xmx512m",
+			PARAMETER_FORK_JVM_ARGS, "-XX:+UseG1GC",
+			PARAMETER_FORK_JVM_ARGS, "-Dmartini.hosts=one,two");
+
+		List<String> arguments = options.getForkJvmArgs();
+		List<String> expected = ImmutableList.of("-Xmx512m", "-XX:+UseG1GC", "-Dmartini.hosts=one,two");
+		checkState(expected.equals(arguments), "wrong fork JVM arguments; expected %s but found %s", expected, arguments);
+	}
+}
@@ -0,0 +1,45 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package guru.qas.martini.standalone.test.spring;
+
+import java.util.List;
+
+import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.MethodExecutor;
+import org.springframework.expression.MethodResolver;
+import org.springframework.expression.TypedValue;
+import org.springframework.stereotype.Component;
+
+import guru.qas.martini.Martini;
+
+@SuppressWarnings("WeakerAccess")
+@Component
+public class IdEndingResolver implements MethodResolver {
+
+	public static final String METHOD = "isIdEnding";
+
+	@Override
+	public MethodExecutor resolve(
+		EvaluationContext context,
+		Object target,
+		String name,
+		List<TypeDescriptor> argumentTypes
+	) {
+		return METHOD.equals(name) && target instanceof Martini ? (executionContext, martini, arguments) ->
+			new TypedValue(((Martini) martini).getId().endsWith(String.valueOf(arguments[0]))) : null;
+	}
+}